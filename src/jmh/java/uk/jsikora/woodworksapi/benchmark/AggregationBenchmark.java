@@ -0,0 +1,100 @@
+package uk.jsikora.woodworksapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.jsikora.woodworksapi.workService.CabinetGroup;
+import uk.jsikora.woodworksapi.workService.EdgeBanding;
+import uk.jsikora.woodworksapi.workService.Item;
+import uk.jsikora.woodworksapi.workService.ItemUtils;
+import uk.jsikora.woodworksapi.workService.MaterialType;
+import uk.jsikora.woodworksapi.workService.generators.ItemType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Aggregation of the raw panel list of a single cabinet (what every generator does) and of a
+ * whole kitchen (the batch material takeoff), against the previous stream-based aggregation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AggregationBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    private BenchmarkFixtures.Kitchen kitchen;
+
+    private List<Item> cabinetItems;
+    private List<Item> kitchenItems;
+
+    @Setup
+    public void setUp() {
+        List<CabinetGroup> groups = BenchmarkFixtures.workService(0)
+                                                     .generateCabinetGroups(kitchen.request());
+        kitchenItems = new ArrayList<>();
+        for (CabinetGroup group : groups) {
+            kitchenItems.addAll(group.getItems());
+        }
+        // Expand one cabinet back into single pieces, the way generators emit them
+        cabinetItems = new ArrayList<>();
+        for (Item item : groups.get(1)
+                               .getItems()) {
+            for (int i = 0; i < item.count(); i++) {
+                cabinetItems.add(item.withCount(1));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Item> aggregateCabinet() {
+        return ItemUtils.aggregateItems(cabinetItems);
+    }
+
+    @Benchmark
+    public List<Item> aggregateKitchen() {
+        return ItemUtils.aggregateItems(kitchenItems);
+    }
+
+    // Baselines: the groupingBy/summingInt aggregation ItemUtils used before its primitive table
+    @Benchmark
+    public List<Item> aggregateCabinetGrouping() {
+        return aggregateGrouping(cabinetItems);
+    }
+
+    @Benchmark
+    public List<Item> aggregateKitchenGrouping() {
+        return aggregateGrouping(kitchenItems);
+    }
+
+    private record ItemKey(String name, int width, int height, int thickness, MaterialType material, ItemType type, EdgeBanding banding) {
+    }
+
+    private static List<Item> aggregateGrouping(List<Item> items) {
+        return items.stream()
+                    .collect(Collectors.groupingBy(item -> new ItemKey(item.name(), item.width(), item.height(), item.thickness(), item.material(),
+                                                                       item.type(), item.banding()),
+                                                   Collectors.summingInt(Item::count)))
+                    .entrySet()
+                    .stream()
+                    .map(entry -> {
+                        ItemKey key = entry.getKey();
+                        return new Item(key.name(), key.width(), key.height(), key.thickness(), entry.getValue(), key.material(), key.type(),
+                                        key.banding());
+                    })
+                    .toList();
+    }
+}
@@ -0,0 +1,141 @@
+package uk.jsikora.woodworksapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.jsikora.woodworksapi.workService.CabinCuttingStrategyRegistry;
+import uk.jsikora.woodworksapi.workService.CabinItemsCache;
+import uk.jsikora.woodworksapi.workService.CabinType;
+import uk.jsikora.woodworksapi.workService.DrawerSystem;
+import uk.jsikora.woodworksapi.workService.WorkRequest;
+import uk.jsikora.woodworksapi.workService.WorkService;
+import uk.jsikora.woodworksapi.workService.generators.DoorsCabinGenerator;
+import uk.jsikora.woodworksapi.workService.generators.DrawersCabinGenerator;
+import uk.jsikora.woodworksapi.workService.generators.ItemType;
+import uk.jsikora.woodworksapi.workService.generators.OvenCabinGenerator;
+import uk.jsikora.woodworksapi.workService.nesting.NestingOptimizer;
+import uk.jsikora.woodworksapi.workService.nesting.NestingProperties;
+import uk.jsikora.woodworksapi.workService.nesting.NestingService;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesRegistry;
+import uk.jsikora.woodworksapi.workService.takeoff.TakeoffProperties;
+import uk.jsikora.woodworksapi.workService.takeoff.TakeoffService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds the cut-list pipeline without a Spring context, with the settings of application.yml.
+ */
+public final class BenchmarkFixtures {
+
+    private static final Executor GENERATION_POOL = Executors.newFixedThreadPool(Runtime.getRuntime()
+                                                                                        .availableProcessors(), runnable -> {
+        Thread thread = new Thread(runnable, "generation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private BenchmarkFixtures() {
+    }
+
+    public enum Kitchen {
+        SMALL(6),
+        MEDIUM(15),
+        HUGE(40);
+
+        private final int cabinets;
+
+        Kitchen(int cabinets) {
+            this.cabinets = cabinets;
+        }
+
+        WorkRequest request() {
+            List<WorkRequest.CabinRequest> cabins = new ArrayList<>(cabinets);
+            for (int i = 0; i < cabinets; i++) {
+                CabinType type = CabinType.values()[i % CabinType.values().length];
+                cabins.add(cabin(type, 400 + (i % 5) * 100));
+            }
+            return new WorkRequest(0, cabins);
+        }
+    }
+
+    static GenerationRulesRegistry rules() {
+        return new GenerationRulesRegistry(new ObjectMapper(), new DefaultResourceLoader(), "classpath:generation-rules.json", event -> {
+        });
+    }
+
+    static CabinCuttingStrategyRegistry registry() {
+        GenerationRulesRegistry rules = rules();
+        return new CabinCuttingStrategyRegistry(List.of(new DoorsCabinGenerator(rules), new DrawersCabinGenerator(rules), new OvenCabinGenerator(rules)));
+    }
+
+    static WorkService workService(long cacheMaxItems) {
+        return workService(cacheMaxItems, 0);
+    }
+
+    /**
+     * @param parallelThreshold {@code woodworks.generation.parallel-threshold}; above 0 cabinets
+     *                          are spread over a daemon pool with one thread per core
+     */
+    static WorkService workService(long cacheMaxItems, int parallelThreshold) {
+        NestingProperties properties = nestingProperties();
+        NestingService nestingService = new NestingService(properties);
+        return new WorkService(registry(),
+                               nestingService,
+                               new NestingOptimizer(nestingService, properties),
+                               parallelThreshold > 0 ? GENERATION_POOL : Runnable::run,
+                               new CabinItemsCache(cacheMaxItems, rules(), new SimpleMeterRegistry()),
+                               new TakeoffService(takeoffProperties(), properties),
+                               parallelThreshold,
+                               0);
+    }
+
+    static NestingProperties nestingProperties() {
+        NestingProperties properties = new NestingProperties();
+        ReflectionTestUtils.setField(properties, "boardLength", 2800);
+        ReflectionTestUtils.setField(properties, "boardWidth", 2070);
+        ReflectionTestUtils.setField(properties, "kerf", 4);
+        ReflectionTestUtils.setField(properties, "edgeTrim", 10);
+        ReflectionTestUtils.setField(properties, "grainLockedTypes", List.of(ItemType.FRONT));
+        ReflectionTestUtils.setField(properties, "defaultTimeBudgetMs", 1000L);
+        ReflectionTestUtils.setField(properties, "maxTimeBudgetMs", 5000L);
+        ReflectionTestUtils.setField(properties, "optimiserParallelism", 1);
+        return properties;
+    }
+
+    static TakeoffProperties takeoffProperties() {
+        TakeoffProperties properties = new TakeoffProperties();
+        ReflectionTestUtils.setField(properties, "currency", "PLN");
+        ReflectionTestUtils.setField(properties, "plytaMeblowaPerSquareMetre", 45.0);
+        ReflectionTestUtils.setField(properties, "mdfPerSquareMetre", 70.0);
+        ReflectionTestUtils.setField(properties, "blatPerSquareMetre", 180.0);
+        ReflectionTestUtils.setField(properties, "hdfPerSheet", 60.0);
+        ReflectionTestUtils.setField(properties, "edgeBandingPerMetre", 2.5);
+        return properties;
+    }
+
+    static WorkRequest.CabinRequest cabin(CabinType type, int width) {
+        List<WorkRequest.DrawerConfig> drawers = type == CabinType.DRAWERS
+                ? List.of(new WorkRequest.DrawerConfig(180, 450), new WorkRequest.DrawerConfig(270, 450), new WorkRequest.DrawerConfig(270, 450))
+                : null;
+        return new WorkRequest.CabinRequest(type,
+                                            width,
+                                            720,
+                                            510,
+                                            18,
+                                            1,
+                                            drawers,
+                                            width >= 600 ? 2 : 1,
+                                            type == CabinType.OVEN,
+                                            100,
+                                            60,
+                                            false,
+                                            50,
+                                            type + " " + width,
+                                            new WorkRequest.ColorConfig("Biały", "Dąb", "Szary", "Biały"),
+                                            DrawerSystem.BLUM_ANTARO);
+    }
+}
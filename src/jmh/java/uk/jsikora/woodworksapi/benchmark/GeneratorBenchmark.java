@@ -0,0 +1,47 @@
+package uk.jsikora.woodworksapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.jsikora.woodworksapi.workService.CabinCuttingStrategy;
+import uk.jsikora.woodworksapi.workService.CabinType;
+import uk.jsikora.woodworksapi.workService.Item;
+import uk.jsikora.woodworksapi.workService.WorkRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratorBenchmark {
+
+    @Param({"DOORS", "DRAWERS", "OVEN"})
+    private CabinType cabinType;
+
+    private CabinCuttingStrategy generator;
+    private WorkRequest.CabinRequest cabin;
+
+    @Setup
+    public void setUp() {
+        generator = BenchmarkFixtures.registry()
+                                     .get(cabinType);
+        cabin = BenchmarkFixtures.cabin(cabinType, 600);
+    }
+
+    @Benchmark
+    public List<Item> generateItems() {
+        return generator.generateItems(cabin);
+    }
+}
@@ -0,0 +1,97 @@
+package uk.jsikora.woodworksapi.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.jsikora.woodworksapi.workService.WorkRequest;
+import uk.jsikora.woodworksapi.workService.WorkService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of draft cut-list requests served as Tomcat would in either threading mode: 200
+ * worker threads on platform threads, a thread per request on virtual ones. Each request
+ * holds one of {@code connections} pooled connections (Hikari's maximum-pool-size) for a
+ * simulated JDBC round trip, then generates a MEDIUM kitchen. There is no HTTP or database
+ * involved, so this compares the threading models, not a deployment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ThreadingBenchmark {
+
+    private static final int REQUESTS = 1000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long JDBC_MILLIS = 5;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private String threading;
+
+    // 10 is Hikari's default, 30 what the virtual profile configures
+    @Param({"10", "30"})
+    private int connections;
+
+    private ExecutorService executor;
+    private Semaphore pool;
+    private WorkService workService;
+    private WorkRequest request;
+
+    @Setup
+    public void setUp() {
+        executor = "VIRTUAL".equals(threading)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        pool = new Semaphore(connections);
+        workService = BenchmarkFixtures.workService(200_000);
+        request = BenchmarkFixtures.Kitchen.MEDIUM.request();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int burst() throws InterruptedException, ExecutionException {
+        List<Future<Integer>> responses = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(executor.submit(this::serve));
+        }
+        int groups = 0;
+        for (Future<Integer> response : responses) {
+            groups += response.get();
+        }
+        return groups;
+    }
+
+    private int serve() throws InterruptedException {
+        pool.acquire();
+        try {
+            Thread.sleep(JDBC_MILLIS);
+        } finally {
+            pool.release();
+        }
+        return workService.generateWorkResponse(request)
+                          .getCabinetGroups()
+                          .size();
+    }
+}
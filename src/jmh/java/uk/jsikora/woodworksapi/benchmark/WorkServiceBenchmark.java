@@ -0,0 +1,67 @@
+package uk.jsikora.woodworksapi.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.jsikora.woodworksapi.workService.WorkRequest;
+import uk.jsikora.woodworksapi.workService.WorkResponse;
+import uk.jsikora.woodworksapi.workService.WorkService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole /cut-list/generate pipeline (generation, aggregation, nesting) with a cold and a warm
+ * cabinet cache, sequential and parallel generation, plus Jackson serialisation of the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkServiceBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    private BenchmarkFixtures.Kitchen kitchen;
+
+    // 0 disables the cabinet cache so every cabinet is generated
+    @Param({"0", "200000"})
+    private long cacheMaxItems;
+
+    // 0 generates on the benchmark thread, 8 spreads MEDIUM and HUGE kitchens over all cores
+    @Param({"0", "8"})
+    private int parallelThreshold;
+
+    private WorkService workService;
+    private WorkRequest request;
+    private WorkResponse response;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        workService = BenchmarkFixtures.workService(cacheMaxItems, parallelThreshold);
+        request = kitchen.request();
+        response = workService.generateWorkResponse(request);
+        objectMapper = new ObjectMapper();
+    }
+
+    @Benchmark
+    public WorkResponse generateWorkResponse() {
+        return workService.generateWorkResponse(request);
+    }
+
+    @Benchmark
+    public byte[] serializeWorkResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,16 @@
+package uk.jsikora.woodworksapi.auth;
+
+import java.security.Principal;
+
+/**
+ * Principal of a JWT authenticated request, built purely from the signed claims so that no
+ * database lookup is needed to authenticate. Anything beyond identity (quotas, profile) is
+ * read through {@link uk.jsikora.woodworksapi.user.UserService} when actually needed.
+ */
+public record AuthenticatedUser(Long id, String email, AuthProvider provider) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
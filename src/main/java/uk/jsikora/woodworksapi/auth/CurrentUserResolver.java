@@ -0,0 +1,46 @@
+package uk.jsikora.woodworksapi.auth;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.stereotype.Component;
+import uk.jsikora.woodworksapi.user.BaseUser;
+import uk.jsikora.woodworksapi.user.UserService;
+
+/**
+ * Resolves the id of the calling user. JWT requests carry it in the principal; OAuth2 session
+ * principals carry the id stored by {@link CustomOauth2UserService} and only fall back to an
+ * e-mail lookup for sessions created before that attribute existed.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUserResolver {
+
+    private final UserService userService;
+
+    public Long getUserId(Authentication authentication) {
+        if (authentication == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+
+        Object principal = authentication.getPrincipal();
+
+        if (principal instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser.id();
+        } else if (principal instanceof BaseUser baseUser) {
+            return baseUser.getId();
+        } else if (principal instanceof OAuth2User oAuth2User) {
+            Object baseUserId = oAuth2User.getAttribute("baseUserId");
+            if (baseUserId instanceof Number id) {
+                return id.longValue();
+            }
+            String email = oAuth2User.getAttribute("email");
+            return userService.findByEmail(email)
+                              .map(BaseUser::getId)
+                              .orElseThrow(() -> new RuntimeException("User not found in database: " + email));
+        } else {
+            throw new RuntimeException("Unsupported authentication type: " + principal.getClass()
+                                                                                     .getName());
+        }
+    }
+}
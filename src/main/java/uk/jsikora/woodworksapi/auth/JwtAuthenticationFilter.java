@@ -1,5 +1,6 @@
 package uk.jsikora.woodworksapi.auth;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,11 +10,11 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import uk.jsikora.woodworksapi.user.BaseUser;
 import uk.jsikora.woodworksapi.user.UserService;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Objects;
 import java.util.Optional;
 
 @Component
@@ -39,11 +40,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String token = authHeader.substring(7);
 
+        Claims claims;
         String email;
         AuthProvider provider;
         try {
-            email = jwtService.getEmailFromToken(token);
-            provider = AuthProvider.fromString(jwtService.getProviderFromToken(token));
+            claims = jwtService.parseClaims(token);
+            email = claims.getSubject();
+            provider = AuthProvider.fromString(Objects.toString(claims.get("provider"), null));
 
         } catch (Exception e) {
             filterChain.doFilter(request, response);
@@ -52,9 +55,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (email != null && SecurityContextHolder.getContext()
                                                   .getAuthentication() == null) {
-            Optional<BaseUser> user = userService.findByEmailAndProvider(email, provider);
-            if (user.isPresent() && jwtService.isTokenValid(token, user.get())) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(user.get(), null, Collections.emptyList());
+            Optional<AuthenticatedUser> principal = toPrincipal(claims, email, provider);
+            if (principal.isPresent()) {
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(principal.get(), null, Collections.emptyList());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext()
                                      .setAuthentication(authToken);
@@ -63,4 +66,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // The signed id claim is trusted as is; only tokens issued without it need a lookup
+    private Optional<AuthenticatedUser> toPrincipal(Claims claims, String email, AuthProvider provider) {
+        if (claims.get("id") instanceof Number id) {
+            return Optional.of(new AuthenticatedUser(id.longValue(), email, provider));
+        }
+        return userService.findByEmailAndProvider(email, provider)
+                          .filter(user -> jwtService.isTokenValid(claims, user))
+                          .map(user -> new AuthenticatedUser(user.getId(), email, provider));
+    }
 }
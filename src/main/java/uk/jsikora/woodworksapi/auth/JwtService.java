@@ -1,10 +1,15 @@
 package uk.jsikora.woodworksapi.auth;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import uk.jsikora.woodworksapi.user.BaseUser;
@@ -14,7 +19,7 @@ import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class JwtService {
@@ -25,6 +30,47 @@ public class JwtService {
     @Value("${woodworks.jwt.expiration}")
     private long jwtExpirationMillis;
 
+    @Value("${woodworks.jwt.cache-ttl-ms:60000}")
+    private long verifiedTokenTtlMillis;
+
+    @Value("${woodworks.jwt.cache-size:10000}")
+    private long verifiedTokenCacheSize;
+
+    private SecretKey signKey;
+    private JwtParser parser;
+    private Cache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signKey = createSignKey();
+        parser = Jwts.parserBuilder()
+                     .setSigningKey(signKey)
+                     .build();
+        // Verified tokens are remembered for a short while, never past their own expiry
+        verifiedTokens = Caffeine.newBuilder()
+                                 .maximumSize(verifiedTokenCacheSize)
+                                 .expireAfter(new Expiry<String, Claims>() {
+                                     @Override
+                                     public long expireAfterCreate(String token, Claims claims, long currentTime) {
+                                         long untilExpiry = claims.getExpiration() != null
+                                                 ? claims.getExpiration().getTime() - System.currentTimeMillis()
+                                                 : verifiedTokenTtlMillis;
+                                         return TimeUnit.MILLISECONDS.toNanos(Math.max(0, Math.min(verifiedTokenTtlMillis, untilExpiry)));
+                                     }
+
+                                     @Override
+                                     public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+                                         return currentDuration;
+                                     }
+
+                                     @Override
+                                     public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+                                         return currentDuration;
+                                     }
+                                 })
+                                 .build();
+    }
+
     public String generateToken(BaseUser baseUser, Map<String, Object> extraClaims) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMillis);
@@ -36,35 +82,38 @@ public class JwtService {
                    .claim("name", baseUser.getName())
                    .setIssuedAt(now)
                    .setExpiration(expiryDate)
-                   .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                   .signWith(signKey, SignatureAlgorithm.HS256)
                    .compact();
     }
 
+    /**
+     * Verifies the signature and expiry of the token once and returns all of its claims.
+     *
+     * @throws JwtException if the token is malformed, forged or expired
+     */
+    public Claims parseClaims(String token) {
+        Claims cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parser.parseClaimsJws(token)
+                              .getBody();
+        verifiedTokens.put(token, claims);
+        return claims;
+    }
+
     public String getEmailFromToken(String token) {
-        return Jwts.parserBuilder()
-                   .setSigningKey(getSignKey())
-                   .build()
-                   .parseClaimsJws(token)
-                   .getBody()
-                   .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public String getProviderFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                            .setSigningKey(getSignKey())
-                            .build()
-                            .parseClaimsJws(token)
-                            .getBody();
-
-        return claims.get("provider").toString();
+        return parseClaims(token).get("provider")
+                                 .toString();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException ex) {
             return false;
@@ -73,35 +122,23 @@ public class JwtService {
 
     // === Walidacja tokena względem użytkownika ===
     public boolean isTokenValid(String token, BaseUser user) {
-        final String email = getEmailFromToken(token);
-        return (email.equals(user.getEmail()) && !isTokenExpired(token));
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return isTokenValid(parseClaims(token), user);
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public boolean isTokenValid(Claims claims, BaseUser user) {
+        return claims.getSubject()
+                     .equals(user.getEmail()) && !isTokenExpired(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                   .setSigningKey(getSignKey())
-                   .build()
-                   .parseClaimsJws(token)
-                   .getBody();
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration()
+                     .before(new Date());
     }
 
     // === Pobranie klucza z sekretu ===
-    private SecretKey getSignKey() {
+    private SecretKey createSignKey() {
         byte[] decodedKey = Base64.getEncoder()
                                   .encode(jwtSecret.getBytes());
         return Keys.hmacShaKeyFor(decodedKey);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package uk.jsikora.woodworksapi.controller;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Entity tags and the conditional request headers carrying them (RFC 9110 13.1).
+ * {@code If-None-Match} is compared weakly; {@code If-Match} on drafts has to name the
+ * version the client last saw.
+ */
+public class ETags {
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String ofHash(String... parts) {
+        return "\"" + DigestUtils.md5DigestAsHex(String.join("|", parts)
+                                                       .getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Weak form of a strong tag, for representations that are equivalent but not byte-identical.
+     */
+    public static String weak(String eTag) {
+        return "W/" + eTag;
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header lists the tag, i.e. the client's copy is current.
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        String opaqueTag = opaque(eTag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = opaque(candidate.trim());
+            if (tag.equals("*") || tag.equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    /**
+     * Version carried by a strong tag made with {@link #of(long)}, or null for {@code *} and
+     * anything else that does not name one version.
+     */
+    public static Long version(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -1,12 +1,32 @@
 package uk.jsikora.woodworksapi.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import uk.jsikora.woodworksapi.auth.CurrentUserResolver;
+import uk.jsikora.woodworksapi.dto.DraftPageCursor;
+import uk.jsikora.woodworksapi.dto.DraftRevisionDto;
+import uk.jsikora.woodworksapi.dto.DraftRevisionSummaryDto;
+import uk.jsikora.woodworksapi.dto.DraftSearchCriteria;
 import uk.jsikora.woodworksapi.dto.KitchenDraftDto;
+import uk.jsikora.woodworksapi.dto.KitchenDraftSummaryPage;
 import uk.jsikora.woodworksapi.dto.SaveKitchenDraftRequest;
+import uk.jsikora.woodworksapi.service.JsonPatches;
 import uk.jsikora.woodworksapi.service.KitchenDraftService;
+import uk.jsikora.woodworksapi.service.RevisionNotFoundException;
+import uk.jsikora.woodworksapi.workService.WorkResponse;
+import uk.jsikora.woodworksapi.workService.WorkResponseETags;
+import uk.jsikora.woodworksapi.workService.nesting.NestingOptions;
+import uk.jsikora.woodworksapi.workService.nesting.NestingResult;
 
 import java.util.List;
 import java.util.UUID;
@@ -16,33 +36,110 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class KitchenDraftController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final KitchenDraftService service;
-    private final uk.jsikora.woodworksapi.user.UserService userService;
+    private final CurrentUserResolver currentUserResolver;
+    private final WorkResponseETags workResponseETags;
+
+    @Value("${woodworks.drafts.page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${woodworks.drafts.max-page-size:200}")
+    private int maxPageSize;
 
     @PostMapping
     public ResponseEntity<KitchenDraftDto> saveDraft(
             @RequestBody SaveKitchenDraftRequest request,
             Authentication authentication) {
-        Long userId = getUserId(authentication);
+        Long userId = currentUserResolver.getUserId(authentication);
         KitchenDraftDto draft = service.saveDraft(userId, request);
         return ResponseEntity.ok(draft);
     }
 
+    /**
+     * With {@code If-Match} carrying the draft's ETag the update is rejected with 412 when the
+     * draft has changed since the client read it.
+     */
     @PutMapping("/{uuid}")
     public ResponseEntity<KitchenDraftDto> updateDraft(
             @PathVariable UUID uuid,
             @RequestBody SaveKitchenDraftRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             Authentication authentication) {
-        Long userId = getUserId(authentication);
-        KitchenDraftDto draft = service.updateDraft(userId, uuid, request);
-        return ResponseEntity.ok(draft);
+        Long userId = currentUserResolver.getUserId(authentication);
+        try {
+            KitchenDraftDto draft = service.updateDraft(userId, uuid, request, expectedVersion(ifMatch));
+            return withETag(draft);
+        } catch (OptimisticLockingFailureException e) {
+            throw preconditionFailedIfConditional(ifMatch, e);
+        }
+    }
+
+    /**
+     * Applies a JSON Patch or JSON Merge Patch (chosen by the content type) to
+     * {@code {"name": ..., "cabinets": [...]}} of the draft. Passing the {@code version} the
+     * client last saw rejects the patch with 409 if someone else changed the draft since;
+     * {@code If-Match} does the same with 412.
+     */
+    @PatchMapping(value = "/{uuid}", consumes = {JsonPatches.JSON_PATCH, JsonPatches.MERGE_PATCH})
+    public ResponseEntity<KitchenDraftDto> patchDraft(
+            @PathVariable UUID uuid,
+            @RequestBody JsonNode patch,
+            @RequestParam(required = false) Long version,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            Authentication authentication) {
+        Long userId = currentUserResolver.getUserId(authentication);
+        boolean mergePatch = contentType.isCompatibleWith(MediaType.parseMediaType(JsonPatches.MERGE_PATCH));
+        Long expectedVersion = ifMatch != null ? expectedVersion(ifMatch) : version;
+        try {
+            return withETag(service.patchDraft(userId, uuid, patch, mergePatch, expectedVersion));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            throw preconditionFailedIfConditional(ifMatch, e);
+        }
     }
 
+    /**
+     * Drafts of the user, newest first. When more drafts follow, the token to pass as
+     * {@code cursor} for the next page is returned in the {@value #NEXT_CURSOR_HEADER} header.
+     */
     @GetMapping
-    public ResponseEntity<List<uk.jsikora.woodworksapi.dto.KitchenDraftSummaryDto>> getUserDrafts(Authentication authentication) {
-        Long userId = getUserId(authentication);
-        List<uk.jsikora.woodworksapi.dto.KitchenDraftSummaryDto> drafts = service.getUserDraftSummaries(userId);
-        return ResponseEntity.ok(drafts);
+    public ResponseEntity<List<uk.jsikora.woodworksapi.dto.KitchenDraftSummaryDto>> getUserDrafts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
+        Long userId = currentUserResolver.getUserId(authentication);
+        String eTag = ETags.ofHash(service.getDraftListingStamp(userId), String.valueOf(cursor), String.valueOf(limit));
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        DraftPageCursor position;
+        try {
+            position = cursor != null ? DraftPageCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, maxPageSize)) : defaultPageSize;
+
+        KitchenDraftSummaryPage page = service.getUserDraftSummaries(userId, position, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                                                            .eTag(eTag);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.drafts());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<uk.jsikora.woodworksapi.dto.KitchenDraftSummaryDto>> searchDrafts(
+            DraftSearchCriteria criteria,
+            Authentication authentication) {
+        Long userId = currentUserResolver.getUserId(authentication);
+        return ResponseEntity.ok(service.searchDrafts(userId, criteria));
     }
 
     @PatchMapping("/{uuid}/name")
@@ -50,45 +147,132 @@ public class KitchenDraftController {
             @PathVariable UUID uuid,
             @RequestBody String newName,
             Authentication authentication) {
-        Long userId = getUserId(authentication);
+        Long userId = currentUserResolver.getUserId(authentication);
         service.renameDraft(userId, uuid, newName);
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Answers 304 from the version column alone when {@code If-None-Match} holds the current
+     * ETag, without loading or decoding the cabinets.
+     */
     @GetMapping("/{uuid}")
     public ResponseEntity<KitchenDraftDto> getDraft(
             @PathVariable UUID uuid,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             Authentication authentication) {
-        Long userId = getUserId(authentication);
+        Long userId = currentUserResolver.getUserId(authentication);
+        if (ifNoneMatch != null) {
+            String eTag = ETags.of(service.getDraftVersion(userId, uuid));
+            if (ETags.matches(ifNoneMatch, eTag)) {
+                return notModified(eTag);
+            }
+        }
         KitchenDraftDto draft = service.getDraft(userId, uuid);
-        return ResponseEntity.ok(draft);
+        return withETag(draft);
+    }
+
+    @GetMapping("/{uuid}/nesting")
+    public ResponseEntity<List<NestingResult>> getDraftNesting(
+            @PathVariable UUID uuid,
+            Authentication authentication) {
+        Long userId = currentUserResolver.getUserId(authentication);
+        return ResponseEntity.ok(service.getDraftNesting(userId, uuid));
+    }
+
+    /**
+     * Generates the cut list of the stored draft without the client sending it back; repeated
+     * calls for an unchanged draft are served from cache. The weak ETag follows the draft and
+     * rules versions: sent back in {@code If-None-Match} it answers a GET with 304 and fails a
+     * POST with 412, in both cases without generating.
+     */
+    @RequestMapping(value = "/{uuid}/cut-list", method = {RequestMethod.GET, RequestMethod.POST})
+    public ResponseEntity<WorkResponse> generateCutList(
+            @PathVariable UUID uuid,
+            @RequestParam(defaultValue = "false") boolean optimise,
+            @RequestParam(required = false) Long timeBudgetMs,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpMethod method,
+            Authentication authentication) {
+        Long userId = currentUserResolver.getUserId(authentication);
+        NestingOptions nestingOptions = NestingOptions.of(optimise, timeBudgetMs);
+        String eTag = workResponseETags.tag(uuid, service.getDraftVersion(userId, uuid), nestingOptions);
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return method == HttpMethod.GET || method == HttpMethod.HEAD ? notModified(eTag) : preconditionFailed(eTag);
+        }
+        return ResponseEntity.ok()
+                             .eTag(eTag)
+                             .body(service.generateDraftCutList(userId, uuid, nestingOptions));
+    }
+
+    @GetMapping("/{uuid}/revisions")
+    public ResponseEntity<List<DraftRevisionSummaryDto>> getDraftRevisions(
+            @PathVariable UUID uuid,
+            Authentication authentication) {
+        Long userId = currentUserResolver.getUserId(authentication);
+        return ResponseEntity.ok(service.getDraftRevisions(userId, uuid));
+    }
+
+    @GetMapping("/{uuid}/revisions/{revision}")
+    public ResponseEntity<DraftRevisionDto> getDraftRevision(
+            @PathVariable UUID uuid,
+            @PathVariable int revision,
+            Authentication authentication) {
+        Long userId = currentUserResolver.getUserId(authentication);
+        try {
+            return ResponseEntity.ok(service.getDraftRevision(userId, uuid, revision));
+        } catch (RevisionNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
     }
 
     @DeleteMapping("/{uuid}")
     public ResponseEntity<Void> deleteDraft(
             @PathVariable UUID uuid,
             Authentication authentication) {
-        Long userId = getUserId(authentication);
+        Long userId = currentUserResolver.getUserId(authentication);
         service.deleteDraft(userId, uuid);
         return ResponseEntity.noContent().build();
     }
 
-    private Long getUserId(Authentication authentication) {
-        if (authentication == null) {
-            throw new RuntimeException("User not authenticated");
+    private static ResponseEntity<KitchenDraftDto> withETag(KitchenDraftDto draft) {
+        return ResponseEntity.ok()
+                             .eTag(ETags.of(draft.getVersion()))
+                             .body(draft);
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                             .eTag(eTag)
+                             .build();
+    }
+
+    private static <T> ResponseEntity<T> preconditionFailed(String eTag) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                             .eTag(eTag)
+                             .build();
+    }
+
+    // Draft ETags name a version; "*" only requires the draft to exist
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim()
+                                      .equals("*")) {
+            return null;
         }
-        
-        Object principal = authentication.getPrincipal();
-        
-        if (principal instanceof uk.jsikora.woodworksapi.user.BaseUser) {
-            return ((uk.jsikora.woodworksapi.user.BaseUser) principal).getId();
-        } else if (principal instanceof org.springframework.security.oauth2.core.user.OAuth2User) {
-            String email = ((org.springframework.security.oauth2.core.user.OAuth2User) principal).getAttribute("email");
-            return userService.findByEmail(email)
-                    .map(uk.jsikora.woodworksapi.user.BaseUser::getId)
-                    .orElseThrow(() -> new RuntimeException("User not found in database: " + email));
-        } else {
-            throw new RuntimeException("Unsupported authentication type: " + principal.getClass().getName());
+        Long version = ETags.version(ifMatch);
+        if (version == null) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not name a draft version");
         }
+        return version;
+    }
+
+    private static RuntimeException preconditionFailedIfConditional(String ifMatch, OptimisticLockingFailureException e) {
+        return ifMatch != null ? new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "Draft has changed since it was read") : e;
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<String> handleConflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                             .body("Draft was modified concurrently, reload it and try again");
     }
 }
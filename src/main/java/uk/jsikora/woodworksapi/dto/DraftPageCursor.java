@@ -0,0 +1,34 @@
+package uk.jsikora.woodworksapi.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the draft listing: the {@code (updatedAt, id)} of the last draft on a page,
+ * passed to the client as an opaque URL-safe token.
+ */
+public record DraftPageCursor(LocalDateTime updatedAt, Long id) {
+
+    public String encode() {
+        String raw = updatedAt + "|" + id;
+        return Base64.getUrlEncoder()
+                     .withoutPadding()
+                     .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static DraftPageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder()
+                                          .decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new DraftPageCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid draft page cursor: " + token, e);
+        }
+    }
+}
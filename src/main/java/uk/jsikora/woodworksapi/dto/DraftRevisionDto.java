@@ -0,0 +1,8 @@
+package uk.jsikora.woodworksapi.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+
+public record DraftRevisionDto(int revision, String name, JsonNode cabinets, LocalDateTime createdAt) {
+}
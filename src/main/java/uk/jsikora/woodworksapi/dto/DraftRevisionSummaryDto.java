@@ -0,0 +1,6 @@
+package uk.jsikora.woodworksapi.dto;
+
+import java.time.LocalDateTime;
+
+public record DraftRevisionSummaryDto(int revision, String name, boolean snapshot, LocalDateTime createdAt) {
+}
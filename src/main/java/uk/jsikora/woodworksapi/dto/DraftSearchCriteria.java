@@ -0,0 +1,18 @@
+package uk.jsikora.woodworksapi.dto;
+
+import uk.jsikora.woodworksapi.workService.CabinType;
+import uk.jsikora.woodworksapi.workService.DrawerSystem;
+
+/**
+ * Filters a search over the user's drafts. A draft matches when at least one of its cabinets
+ * satisfies every given criterion; criteria left null are ignored.
+ */
+public record DraftSearchCriteria(CabinType cabinType,
+                                  DrawerSystem drawerSystem,
+                                  Integer minWidth,
+                                  Integer maxWidth,
+                                  Integer minHeight,
+                                  Integer maxHeight,
+                                  Integer minDepth,
+                                  Integer maxDepth) {
+}
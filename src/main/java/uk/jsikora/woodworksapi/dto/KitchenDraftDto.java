@@ -18,4 +18,5 @@ public class KitchenDraftDto {
     private JsonNode cabinets; // Will hold the cabinet array as JSON
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
@@ -0,0 +1,9 @@
+package uk.jsikora.woodworksapi.dto;
+
+import java.util.List;
+
+/**
+ * One page of the draft listing; {@code nextCursor} is null on the last page.
+ */
+public record KitchenDraftSummaryPage(List<KitchenDraftSummaryDto> drafts, String nextCursor) {
+}
@@ -4,6 +4,8 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -28,9 +30,22 @@ public class KitchenDraft {
     @Column(nullable = false)
     private String name;
 
-    @Column(name = "cabinets_json", nullable = false, columnDefinition = "TEXT")
+    // Legacy text storage, only set on rows not yet upgraded to cabinetsData
+    @Column(name = "cabinets_json", columnDefinition = "TEXT")
     private String cabinetsJson;
 
+    @Column(name = "cabinets_data")
+    private byte[] cabinetsData;
+
+    // Searchable fields of every cabinet, see DraftSearchIndex
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "cabinets_doc", columnDefinition = "jsonb")
+    private String cabinetsDoc;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
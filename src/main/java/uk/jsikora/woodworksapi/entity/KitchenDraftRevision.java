@@ -0,0 +1,48 @@
+package uk.jsikora.woodworksapi.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One saved state of a draft. Snapshots hold the whole {@code {name, cabinets}} document,
+ * the revisions in between only the JSON Patch from the previous revision; both encoded with
+ * the draft cabinets codec.
+ */
+@Entity
+@Table(name = "kitchen_draft_revision")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KitchenDraftRevision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "draft_id", nullable = false)
+    private Long draftId;
+
+    @Column(nullable = false)
+    private Integer revision;
+
+    @Column(nullable = false)
+    private boolean snapshot;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private byte[] payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,17 @@
+package uk.jsikora.woodworksapi.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregate over a user's drafts that changes whenever one is created, changed or deleted;
+ * the listing ETag is derived from it without loading the listing itself.
+ */
+public record KitchenDraftListingStamp(Long count,
+                                       LocalDateTime lastUpdated,
+                                       Long versionSum) {
+
+    @Override
+    public String toString() {
+        return count + "/" + lastUpdated + "/" + versionSum;
+    }
+}
@@ -1,9 +1,16 @@
 package uk.jsikora.woodworksapi.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import uk.jsikora.woodworksapi.entity.KitchenDraft;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,9 +18,68 @@ import java.util.UUID;
 @Repository
 public interface KitchenDraftRepository extends JpaRepository<KitchenDraft, Long> {
     
-    List<KitchenDraft> findByUserIdOrderByUpdatedAtDesc(Long userId);
+    @Query("""
+            SELECT new uk.jsikora.woodworksapi.repository.KitchenDraftSummaryView(d.id, d.uuid, d.name, d.createdAt, d.updatedAt)
+            FROM KitchenDraft d
+            WHERE d.userId = :userId
+            ORDER BY d.updatedAt DESC, d.id DESC
+            """)
+    List<KitchenDraftSummaryView> findSummaries(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Next page of {@link #findSummaries}: drafts strictly after the given {@code (updatedAt, id)}
+     * position in the listing order.
+     */
+    @Query("""
+            SELECT new uk.jsikora.woodworksapi.repository.KitchenDraftSummaryView(d.id, d.uuid, d.name, d.createdAt, d.updatedAt)
+            FROM KitchenDraft d
+            WHERE d.userId = :userId
+              AND (d.updatedAt < :updatedAt OR (d.updatedAt = :updatedAt AND d.id < :id))
+            ORDER BY d.updatedAt DESC, d.id DESC
+            """)
+    List<KitchenDraftSummaryView> findSummariesAfter(@Param("userId") Long userId,
+                                                     @Param("updatedAt") LocalDateTime updatedAt,
+                                                     @Param("id") Long id,
+                                                     Limit limit);
     
     Optional<KitchenDraft> findByUuidAndUserId(UUID uuid, Long userId);
+
+    /**
+     * {@link #findByUuidAndUserId} holding the row locked until the transaction ends, for
+     * numbering a revision of a draft whose save issued no versioned {@code UPDATE}.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM KitchenDraft d WHERE d.uuid = :uuid AND d.userId = :userId")
+    Optional<KitchenDraft> findForUpdate(@Param("uuid") UUID uuid, @Param("userId") Long userId);
+
+    @Query("SELECT d.version FROM KitchenDraft d WHERE d.uuid = :uuid AND d.userId = :userId")
+    Optional<Long> findVersion(@Param("uuid") UUID uuid, @Param("userId") Long userId);
+
+    @Query("""
+            SELECT new uk.jsikora.woodworksapi.repository.KitchenDraftListingStamp(count(d), max(d.updatedAt), sum(d.version))
+            FROM KitchenDraft d
+            WHERE d.userId = :userId
+            """)
+    KitchenDraftListingStamp findListingStamp(@Param("userId") Long userId);
+
+    List<KitchenDraft> findByUserIdAndUuidIn(Long userId, Collection<UUID> uuids);
     
-    void deleteByUuidAndUserId(UUID uuid, Long userId);
+    long deleteByUuidAndUserId(UUID uuid, Long userId);
+
+    /**
+     * Drafts of the user with a cabinet matching the search. {@code contains} is a jsonb array
+     * pattern narrowing the rows through the GIN index, {@code path} a jsonpath that must select
+     * at least one cabinet.
+     */
+    @Query(value = """
+            SELECT uuid, name, created_at AS "createdAt", updated_at AS "updatedAt"
+            FROM kitchen_draft
+            WHERE user_id = :userId
+              AND cabinets_doc @> CAST(:contains AS jsonb)
+              AND jsonb_path_exists(cabinets_doc, CAST(:path AS jsonpath))
+            ORDER BY updated_at DESC
+            """, nativeQuery = true)
+    List<KitchenDraftSearchRow> searchByCabinets(@Param("userId") Long userId,
+                                                 @Param("contains") String contains,
+                                                 @Param("path") String path);
 }
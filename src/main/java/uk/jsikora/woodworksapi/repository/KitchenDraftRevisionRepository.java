@@ -0,0 +1,33 @@
+package uk.jsikora.woodworksapi.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import uk.jsikora.woodworksapi.dto.DraftRevisionSummaryDto;
+import uk.jsikora.woodworksapi.entity.KitchenDraftRevision;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface KitchenDraftRevisionRepository extends JpaRepository<KitchenDraftRevision, Long> {
+
+    @Query("SELECT max(r.revision) FROM KitchenDraftRevision r WHERE r.draftId = :draftId")
+    Optional<Integer> findLatestRevision(@Param("draftId") Long draftId);
+
+    @Query("""
+            SELECT new uk.jsikora.woodworksapi.dto.DraftRevisionSummaryDto(r.revision, r.name, r.snapshot, r.createdAt)
+            FROM KitchenDraftRevision r
+            WHERE r.draftId = :draftId
+            ORDER BY r.revision DESC
+            """)
+    List<DraftRevisionSummaryDto> findSummaries(@Param("draftId") Long draftId);
+
+    List<KitchenDraftRevision> findByDraftIdAndRevisionBetweenOrderByRevisionAsc(Long draftId, Integer from, Integer to);
+
+    @Modifying
+    @Query("DELETE FROM KitchenDraftRevision r WHERE r.draftId = :draftId AND r.revision < :revision")
+    int deleteOlderThan(@Param("draftId") Long draftId, @Param("revision") Integer revision);
+}
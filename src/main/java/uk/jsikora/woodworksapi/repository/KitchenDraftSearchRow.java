@@ -0,0 +1,19 @@
+package uk.jsikora.woodworksapi.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Summary columns of a draft found by the native cabinet search. An interface, since native
+ * queries only map their columns onto projections by alias.
+ */
+public interface KitchenDraftSearchRow {
+
+    UUID getUuid();
+
+    String getName();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
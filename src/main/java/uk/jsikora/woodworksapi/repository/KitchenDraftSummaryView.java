@@ -0,0 +1,15 @@
+package uk.jsikora.woodworksapi.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Summary columns of a draft, selected without the cabinets payload. The id is only kept as
+ * the tie-breaker of the listing's keyset cursor.
+ */
+public record KitchenDraftSummaryView(Long id,
+                                      UUID uuid,
+                                      String name,
+                                      LocalDateTime createdAt,
+                                      LocalDateTime updatedAt) {
+}
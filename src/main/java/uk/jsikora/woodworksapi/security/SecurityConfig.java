@@ -13,6 +13,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import uk.jsikora.woodworksapi.auth.CustomOauth2UserService;
 import uk.jsikora.woodworksapi.auth.JwtAuthenticationFilter;
 import uk.jsikora.woodworksapi.auth.OAuth2AuthenticationSuccessHandler;
+import uk.jsikora.woodworksapi.controller.KitchenDraftController;
 
 import java.util.List;
 
@@ -57,6 +58,7 @@ public class SecurityConfig {
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         config.setAllowedHeaders(List.of("Authorization","Content-Type","X-Requested-With"));
         config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(List.of(KitchenDraftController.NEXT_CURSOR_HEADER, "ETag"));
         config.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
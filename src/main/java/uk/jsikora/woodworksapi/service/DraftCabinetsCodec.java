@@ -0,0 +1,127 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Binary storage format of the draft cabinets. The payload starts with a one byte format tag
+ * followed by the cabinet array in Smile (binary JSON with back-referenced property names),
+ * deflated when it is large enough for compression to pay off. Rows written with any known
+ * format stay readable when the configured one changes, as do the JSON text rows written
+ * before there was a binary format.
+ */
+@Component
+public class DraftCabinetsCodec {
+
+    enum Format {
+        SMILE((byte) 1),
+        SMILE_DEFLATE((byte) 2);
+
+        private final byte tag;
+
+        Format(byte tag) {
+            this.tag = tag;
+        }
+
+        byte tag() {
+            return tag;
+        }
+
+        static Format of(byte tag) {
+            for (Format format : values()) {
+                if (format.tag == tag) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unknown draft cabinets format: " + tag);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final SmileMapper smileMapper;
+    private final boolean compress;
+    private final int compressThreshold;
+
+    public DraftCabinetsCodec(ObjectMapper objectMapper,
+                              @Value("${woodworks.drafts.compress:true}") boolean compress,
+                              @Value("${woodworks.drafts.compress-threshold:512}") int compressThreshold) {
+        this.objectMapper = objectMapper;
+        this.smileMapper = SmileMapper.builder()
+                                      .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                                      .build();
+        this.compress = compress;
+        this.compressThreshold = compressThreshold;
+    }
+
+    public byte[] encode(JsonNode cabinets) {
+        try {
+            byte[] smile = smileMapper.writeValueAsBytes(cabinets);
+            if (!compress || smile.length < compressThreshold) {
+                return tagged(Format.SMILE, smile);
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(smile.length / 2);
+            out.write(Format.SMILE_DEFLATE.tag);
+            // A Deflater passed in is not ended by the stream, its native memory is freed here
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater)) {
+                deflated.write(smile);
+            } finally {
+                deflater.end();
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize cabinets", e);
+        }
+    }
+
+    public JsonNode decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            throw new RuntimeException("Failed to deserialize cabinets: empty payload");
+        }
+        InputStream payload = new ByteArrayInputStream(data, 1, data.length - 1);
+        try {
+            return switch (Format.of(data[0])) {
+                case SMILE -> smileMapper.readTree(payload);
+                case SMILE_DEFLATE -> {
+                    try (InputStream inflater = new InflaterInputStream(payload)) {
+                        yield smileMapper.readTree(inflater);
+                    }
+                }
+            };
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RuntimeException("Failed to deserialize cabinets", e);
+        }
+    }
+
+    /**
+     * Reads the cabinets of a row written before the binary format, stored as JSON text.
+     */
+    public JsonNode decodeText(String cabinetsJson) {
+        try {
+            return objectMapper.readTree(cabinetsJson);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to deserialize cabinets", e);
+        }
+    }
+
+    private static byte[] tagged(Format format, byte[] payload) {
+        byte[] data = new byte[payload.length + 1];
+        data[0] = format.tag;
+        System.arraycopy(payload, 0, data, 1, payload.length);
+        return data;
+    }
+}
@@ -0,0 +1,72 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import uk.jsikora.woodworksapi.workService.WorkResponse;
+import uk.jsikora.woodworksapi.workService.nesting.NestingOptions;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesChangedEvent;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesRegistry;
+
+import java.util.UUID;
+
+/**
+ * Cut lists generated from stored drafts, keyed by draft UUID and version and by the rules
+ * version. Every change of a draft or of the rules changes the key, so a stale entry can never
+ * be served; evicting on update, delete and rules reload just frees the memory early. Cached
+ * responses are shared and must not be modified. Hit/miss counts are published as
+ * {@code cache.*{cache=draft-cut-lists}}.
+ */
+@Component
+public class DraftCutListCache {
+
+    private final Cache<DraftKey, WorkResponse> cache;
+    private final GenerationRulesRegistry rulesRegistry;
+
+    public DraftCutListCache(@Value("${woodworks.drafts.cut-list-cache-size:500}") long maxDrafts,
+                             GenerationRulesRegistry rulesRegistry,
+                             MeterRegistry meterRegistry) {
+        this.rulesRegistry = rulesRegistry;
+        this.cache = Caffeine.newBuilder()
+                             .maximumSize(maxDrafts)
+                             .recordStats()
+                             .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "draft-cut-lists");
+    }
+
+    /**
+     * Key of the draft version under the current rules. Take it before generating, so the
+     * response is never stored under rules newer than the ones it was generated with.
+     */
+    public DraftKey key(UUID uuid, long version, NestingOptions nestingOptions) {
+        return new DraftKey(uuid, version, nestingOptions, rulesRegistry.current()
+                                                                        .version());
+    }
+
+    public WorkResponse getIfPresent(DraftKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(DraftKey key, WorkResponse response) {
+        cache.put(key, response);
+    }
+
+    public void evict(UUID uuid) {
+        cache.asMap()
+             .keySet()
+             .removeIf(key -> key.uuid()
+                                 .equals(uuid));
+    }
+
+    @EventListener(GenerationRulesChangedEvent.class)
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public record DraftKey(UUID uuid, long version, NestingOptions nestingOptions, String rulesVersion) {
+    }
+}
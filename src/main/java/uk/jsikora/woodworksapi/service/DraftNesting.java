@@ -0,0 +1,99 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.jsikora.woodworksapi.workService.GenerationExecutorConfig;
+import uk.jsikora.woodworksapi.workService.WorkService;
+import uk.jsikora.woodworksapi.workService.nesting.IncrementalNestingService;
+import uk.jsikora.woodworksapi.workService.nesting.NestingResult;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Board layouts of stored drafts. The first request for a layout nests the whole draft; once
+ * someone has looked at it, every saved change re-places only the changed panels. That refresh
+ * runs on the generation executor after the save has committed, so neither the save's
+ * transaction nor its response waits for it, and a rolled back save never reaches the shared
+ * layout cache.
+ */
+@Slf4j
+@Component
+public class DraftNesting {
+
+    private final DraftWorkRequestMapper draftWorkRequestMapper;
+    private final WorkService workService;
+    private final IncrementalNestingService incrementalNestingService;
+    private final Executor generationExecutor;
+
+    public DraftNesting(DraftWorkRequestMapper draftWorkRequestMapper,
+                        WorkService workService,
+                        IncrementalNestingService incrementalNestingService,
+                        @Qualifier(GenerationExecutorConfig.GENERATION_EXECUTOR) Executor generationExecutor) {
+        this.draftWorkRequestMapper = draftWorkRequestMapper;
+        this.workService = workService;
+        this.incrementalNestingService = incrementalNestingService;
+        this.generationExecutor = generationExecutor;
+    }
+
+    /**
+     * Layout of the cabinets, or empty if they cannot be converted to a cut list.
+     */
+    public Optional<List<NestingResult>> nest(UUID uuid, JsonNode cabinets) {
+        return draftWorkRequestMapper.toWorkRequest(cabinets)
+                                     .map(workService::generateCabinetGroups)
+                                     .map(cabinetGroups -> incrementalNestingService.nest(uuid, cabinetGroups));
+    }
+
+    /**
+     * Brings a kept layout up to date with the saved cabinets in the background, once the
+     * surrounding transaction has committed. Drafts without a kept layout are left alone.
+     */
+    public void refresh(UUID uuid, JsonNode cabinets) {
+        if (!incrementalNestingService.hasLayout(uuid)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submitRefresh(uuid, cabinets);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submitRefresh(uuid, cabinets);
+            }
+        });
+    }
+
+    public void evict(UUID uuid) {
+        incrementalNestingService.evict(uuid);
+    }
+
+    private void submitRefresh(UUID uuid, JsonNode cabinets) {
+        try {
+            generationExecutor.execute(() -> refreshNow(uuid, cabinets));
+        } catch (RejectedExecutionException e) {
+            // The next request for the layout nests the draft from scratch
+            log.debug("Generation executor is saturated, dropping the layout of draft {}", uuid);
+            incrementalNestingService.evict(uuid);
+        }
+    }
+
+    private void refreshNow(UUID uuid, JsonNode cabinets) {
+        try {
+            if (nest(uuid, cabinets).isEmpty()) {
+                incrementalNestingService.evict(uuid);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh nesting of draft {}", uuid, e);
+            incrementalNestingService.evict(uuid);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.jsikora.woodworksapi.dto.DraftRevisionDto;
+import uk.jsikora.woodworksapi.dto.DraftRevisionSummaryDto;
+import uk.jsikora.woodworksapi.entity.KitchenDraftRevision;
+import uk.jsikora.woodworksapi.repository.KitchenDraftRevisionRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Revision history of drafts. Every {@code snapshotEvery}-th revision (1, 1 + n, 1 + 2n, ...)
+ * stores the whole draft, the ones in between just the JSON Patch from their predecessor, so
+ * an autosave nudging one width costs a few bytes and any revision is rebuilt from at most
+ * {@code snapshotEvery - 1} patches. Only the newest {@code maxRevisions} are guaranteed to be
+ * kept; older ones are pruned a whole snapshot group at a time so every kept revision stays
+ * reachable from its snapshot.
+ */
+@Service
+public class DraftRevisionService {
+
+    private final KitchenDraftRevisionRepository repository;
+    private final DraftCabinetsCodec codec;
+    private final int snapshotEvery;
+    private final int maxRevisions;
+
+    public DraftRevisionService(KitchenDraftRevisionRepository repository,
+                                DraftCabinetsCodec codec,
+                                @Value("${woodworks.drafts.revisions.snapshot-every:20}") int snapshotEvery,
+                                @Value("${woodworks.drafts.revisions.max:100}") int maxRevisions) {
+        this.repository = repository;
+        this.codec = codec;
+        this.snapshotEvery = Math.max(snapshotEvery, 1);
+        this.maxRevisions = Math.max(maxRevisions, 1);
+    }
+
+    /**
+     * Records a change of the draft's {@code {name, cabinets}} document. {@code before} is null
+     * for a new draft; for a draft saved before revisions existed it becomes the first snapshot.
+     * The caller must hold the draft row locked (a new draft, a flushed versioned update of it,
+     * or one read with {@code findForUpdate}) so that concurrent saves never take the same
+     * revision number.
+     */
+    public void record(Long draftId, JsonNode before, JsonNode after) {
+        Optional<Integer> latest = repository.findLatestRevision(draftId);
+        int revision;
+        if (latest.isPresent()) {
+            if (after.equals(before)) {
+                return;
+            }
+            revision = latest.get() + 1;
+        } else if (before != null && !before.equals(after)) {
+            save(draftId, 1, before, true, before);
+            revision = 2;
+        } else {
+            revision = 1;
+        }
+
+        boolean snapshot = isSnapshot(revision) || before == null;
+        save(draftId, revision, after, snapshot, snapshot ? after : JsonPatches.diff(before, after));
+        prune(draftId, revision);
+    }
+
+    public List<DraftRevisionSummaryDto> list(Long draftId) {
+        return repository.findSummaries(draftId);
+    }
+
+    /**
+     * Rebuilds the draft as it was at the given revision.
+     *
+     * @throws RevisionNotFoundException if the revision does not exist or has been pruned
+     */
+    public DraftRevisionDto materialise(Long draftId, int revision) {
+        if (revision < 1) {
+            throw new RevisionNotFoundException(revision);
+        }
+        int base = revision - (revision - 1) % snapshotEvery;
+        List<KitchenDraftRevision> chain = repository.findByDraftIdAndRevisionBetweenOrderByRevisionAsc(draftId, base, revision);
+        if (chain.size() != revision - base + 1 || !chain.get(0)
+                                                          .isSnapshot()) {
+            throw new RevisionNotFoundException(revision);
+        }
+
+        JsonNode document = codec.decode(chain.get(0)
+                                              .getPayload());
+        for (KitchenDraftRevision step : chain.subList(1, chain.size())) {
+            JsonNode payload = codec.decode(step.getPayload());
+            document = step.isSnapshot() ? payload : JsonPatches.applyPatch(document, payload);
+        }
+
+        KitchenDraftRevision last = chain.get(chain.size() - 1);
+        return new DraftRevisionDto(revision, last.getName(), document.get("cabinets"), last.getCreatedAt());
+    }
+
+    private boolean isSnapshot(int revision) {
+        return (revision - 1) % snapshotEvery == 0;
+    }
+
+    private void save(Long draftId, int revision, JsonNode document, boolean snapshot, JsonNode payload) {
+        KitchenDraftRevision entry = new KitchenDraftRevision();
+        entry.setDraftId(draftId);
+        entry.setRevision(revision);
+        entry.setSnapshot(snapshot);
+        entry.setName(document.path("name")
+                              .asText());
+        entry.setPayload(codec.encode(payload));
+        repository.save(entry);
+    }
+
+    private void prune(Long draftId, int latest) {
+        if (latest <= maxRevisions) {
+            return;
+        }
+        int oldestKept = latest - maxRevisions + 1;
+        repository.deleteOlderThan(draftId, oldestKept - (oldestKept - 1) % snapshotEvery);
+    }
+}
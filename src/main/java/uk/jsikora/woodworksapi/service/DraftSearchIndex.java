@@ -0,0 +1,93 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import uk.jsikora.woodworksapi.dto.DraftSearchCriteria;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the {@code cabinets_doc} jsonb search document of a draft - one small object per
+ * cabinet holding only the searchable fields - and turns search criteria into the queries run
+ * against it. The containment filter is served by the GIN index; the jsonpath filter then
+ * checks that a single cabinet satisfies all criteria, including the dimension ranges.
+ */
+@Component
+@RequiredArgsConstructor
+public class DraftSearchIndex {
+
+    private static final List<String> INDEXED_FIELDS = List.of("cabinType", "drawerSystem", "width", "height", "depth");
+
+    private final ObjectMapper objectMapper;
+
+    public String toDocument(JsonNode cabinets) {
+        ArrayNode document = objectMapper.createArrayNode();
+        if (cabinets != null && cabinets.isArray()) {
+            for (JsonNode cabinet : cabinets) {
+                ObjectNode entry = document.addObject();
+                for (String field : INDEXED_FIELDS) {
+                    JsonNode value = cabinet.get(field);
+                    if (value != null && (value.isTextual() || value.isNumber())) {
+                        entry.set(field, value);
+                    }
+                }
+            }
+        }
+        return write(document);
+    }
+
+    public String containment(DraftSearchCriteria criteria) {
+        ObjectNode cabinet = objectMapper.createObjectNode();
+        if (criteria.cabinType() != null) {
+            cabinet.put("cabinType", criteria.cabinType()
+                                             .name());
+        }
+        if (criteria.drawerSystem() != null) {
+            cabinet.put("drawerSystem", criteria.drawerSystem()
+                                                .name());
+        }
+        return write(objectMapper.createArrayNode()
+                                 .add(cabinet));
+    }
+
+    // Only enum names and integers go into the path, so it cannot be used for injection
+    public String jsonPath(DraftSearchCriteria criteria) {
+        List<String> conditions = new ArrayList<>();
+        if (criteria.cabinType() != null) {
+            conditions.add("@.cabinType == \"" + criteria.cabinType()
+                                                         .name() + "\"");
+        }
+        if (criteria.drawerSystem() != null) {
+            conditions.add("@.drawerSystem == \"" + criteria.drawerSystem()
+                                                            .name() + "\"");
+        }
+        range(conditions, "width", criteria.minWidth(), criteria.maxWidth());
+        range(conditions, "height", criteria.minHeight(), criteria.maxHeight());
+        range(conditions, "depth", criteria.minDepth(), criteria.maxDepth());
+
+        return conditions.isEmpty() ? "$[*]" : "$[*] ? (" + String.join(" && ", conditions) + ")";
+    }
+
+    private static void range(List<String> conditions, String field, Integer min, Integer max) {
+        if (min != null) {
+            conditions.add("@." + field + " >= " + min);
+        }
+        if (max != null) {
+            conditions.add("@." + field + " <= " + max);
+        }
+    }
+
+    private String write(JsonNode node) {
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize cabinets search document", e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.jsikora.woodworksapi.entity.KitchenDraft;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings drafts written by older versions up to the current storage: JSON text is moved into
+ * the binary {@code cabinets_data} column and the {@code cabinets_doc} search document is
+ * filled in. A draft written in a writable transaction is upgraded along with it; everything
+ * else, including drafts that are only read, is left to a background sweep so that no request
+ * takes a second connection for it. The sweep updates rows through plain JDBC, which leaves
+ * {@code updated_at} alone.
+ */
+@Slf4j
+@Component
+public class DraftStorageUpgrader {
+
+    // Only applies to the row as it was read: a draft saved in the meantime is already current
+    private static final String UPGRADE = "UPDATE kitchen_draft SET cabinets_data = ?, cabinets_doc = CAST(? AS jsonb), cabinets_json = NULL WHERE id = ? AND version = ?";
+    private static final String FIND_LEGACY = "SELECT id, version, cabinets_json, cabinets_data FROM kitchen_draft "
+            + "WHERE (cabinets_data IS NULL OR cabinets_doc IS NULL) AND id > ? ORDER BY id LIMIT ?";
+
+    private final DraftCabinetsCodec codec;
+    private final DraftSearchIndex searchIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final int sweepBatchSize;
+
+    // Rows that cannot be parsed stay behind, the sweep moves on past them
+    private long lastSweptId;
+
+    public DraftStorageUpgrader(DraftCabinetsCodec codec,
+                                DraftSearchIndex searchIndex,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${woodworks.drafts.upgrade-batch-size:200}") int sweepBatchSize) {
+        this.codec = codec;
+        this.searchIndex = searchIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    public boolean needsUpgrade(KitchenDraft draft) {
+        return draft.getCabinetsData() == null || draft.getCabinetsDoc() == null;
+    }
+
+    /**
+     * Stores the already parsed cabinets of an outdated draft in the current format when called
+     * inside a writable transaction, which then flushes the entity along with its other
+     * changes. Anywhere else the draft is left for the sweep.
+     */
+    public void upgrade(KitchenDraft draft, JsonNode cabinets) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        draft.setCabinetsData(codec.encode(cabinets));
+        draft.setCabinetsDoc(searchIndex.toDocument(cabinets));
+        draft.setCabinetsJson(null);
+    }
+
+    @Scheduled(fixedDelayString = "${woodworks.drafts.upgrade-interval-ms:60000}")
+    public void upgradeLegacyDrafts() {
+        if (sweepBatchSize <= 0) {
+            return;
+        }
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(FIND_LEGACY, lastSweptId, sweepBatchSize);
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            long id = ((Number) row.get("id")).longValue();
+            lastSweptId = id;
+            try {
+                byte[] data = (byte[]) row.get("cabinets_data");
+                JsonNode cabinets = data != null ? codec.decode(data) : codec.decodeText((String) row.get("cabinets_json"));
+                args.add(new Object[]{codec.encode(cabinets), searchIndex.toDocument(cabinets), id, row.get("version")});
+            } catch (RuntimeException e) {
+                log.warn("Draft {} has unreadable cabinets, leaving it as is", id, e);
+            }
+        }
+        int[] updated = transaction.execute(status -> jdbcTemplate.batchUpdate(UPGRADE, args));
+        long upgraded = updated == null ? 0 : Arrays.stream(updated)
+                                                    .filter(count -> count != 0)
+                                                    .count();
+        log.info("Upgraded the cabinets storage of {} draft(s), {} were already upgraded", upgraded, args.size() - upgraded);
+    }
+}
@@ -0,0 +1,41 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import uk.jsikora.woodworksapi.workService.WorkRequest;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Maps the cabinet array stored with a draft back into the request the cut-list generators take.
+ * The draft JSON carries extra frontend-only fields, which are ignored.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DraftWorkRequestMapper {
+
+    private final ObjectMapper objectMapper;
+
+    public Optional<WorkRequest> toWorkRequest(JsonNode cabinets) {
+        if (cabinets == null || !cabinets.isArray()) {
+            return Optional.empty();
+        }
+        try {
+            WorkRequest.CabinRequest[] cabins = objectMapper.treeToValue(cabinets, WorkRequest.CabinRequest[].class);
+            if (Arrays.stream(cabins)
+                      .anyMatch(cabin -> cabin == null || cabin.cabinType() == null)) {
+                return Optional.empty();
+            }
+            return Optional.of(new WorkRequest(0, Arrays.asList(cabins)));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.debug("Draft cabinets cannot be mapped to a cut-list request", e);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * JSON Patch (RFC 6902) and JSON Merge Patch (RFC 7386) over Jackson trees, plus the diff
+ * producing a JSON Patch between two documents. Patches are applied to a copy of the target,
+ * so a patch that fails half way leaves the original untouched. Invalid patches are reported
+ * with an {@link IllegalArgumentException}.
+ */
+public class JsonPatches {
+
+    public static final String JSON_PATCH = "application/json-patch+json";
+    public static final String MERGE_PATCH = "application/merge-patch+json";
+
+    public static JsonNode applyPatch(JsonNode target, JsonNode patch) {
+        if (patch == null || !patch.isArray()) {
+            throw new IllegalArgumentException("JSON Patch must be an array of operations");
+        }
+        JsonNode document = target.deepCopy();
+        for (JsonNode operation : patch) {
+            document = apply(document, operation);
+        }
+        return document;
+    }
+
+    public static JsonNode applyMergePatch(JsonNode target, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            return patch != null ? patch.deepCopy() : null;
+        }
+        ObjectNode result = target != null && target.isObject()
+                ? ((ObjectNode) target).deepCopy()
+                : ((ObjectNode) patch).objectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue()
+                     .isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), applyMergePatch(result.get(field.getKey()), field.getValue()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * JSON Patch turning {@code source} into {@code target}. Objects are compared field by
+     * field; arrays skip their common head and tail first, so inserting or removing one cabinet
+     * yields a single operation rather than a rewrite of every cabinet after it.
+     */
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode operations = JsonNodeFactory.instance.arrayNode();
+        diff("", source, target, operations);
+        return operations;
+    }
+
+    private static void diff(String path, JsonNode source, JsonNode target, ArrayNode operations) {
+        if (source.equals(target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject()) {
+            Iterator<String> names = source.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (!target.has(name)) {
+                    operation(operations, "remove", path + "/" + escape(name), null);
+                }
+            }
+            Iterator<Map.Entry<String, JsonNode>> fields = target.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String fieldPath = path + "/" + escape(field.getKey());
+                JsonNode previous = source.get(field.getKey());
+                if (previous == null) {
+                    operation(operations, "add", fieldPath, field.getValue());
+                } else {
+                    diff(fieldPath, previous, field.getValue(), operations);
+                }
+            }
+        } else if (source.isArray() && target.isArray()) {
+            int sourceSize = source.size();
+            int targetSize = target.size();
+            int head = 0;
+            while (head < sourceSize && head < targetSize && source.get(head)
+                                                                   .equals(target.get(head))) {
+                head++;
+            }
+            int tail = 0;
+            while (tail < sourceSize - head && tail < targetSize - head
+                    && source.get(sourceSize - 1 - tail)
+                             .equals(target.get(targetSize - 1 - tail))) {
+                tail++;
+            }
+
+            int sourceMiddle = sourceSize - head - tail;
+            int targetMiddle = targetSize - head - tail;
+            int common = Math.min(sourceMiddle, targetMiddle);
+            for (int i = 0; i < common; i++) {
+                diff(path + "/" + (head + i), source.get(head + i), target.get(head + i), operations);
+            }
+            for (int i = common; i < sourceMiddle; i++) {
+                operation(operations, "remove", path + "/" + (head + common), null);
+            }
+            for (int i = common; i < targetMiddle; i++) {
+                operation(operations, "add", path + "/" + (head + i), target.get(head + i));
+            }
+        } else {
+            operation(operations, "replace", path, target);
+        }
+    }
+
+    private static void operation(ArrayNode operations, String op, String path, JsonNode value) {
+        ObjectNode operation = operations.addObject()
+                                         .put("op", op)
+                                         .put("path", path);
+        if (value != null) {
+            operation.set("value", value.deepCopy());
+        }
+    }
+
+    private static String escape(String name) {
+        return name.replace("~", "~0")
+                   .replace("/", "~1");
+    }
+
+    private static JsonNode apply(JsonNode document, JsonNode operation) {
+        String op = operation.path("op")
+                             .asText();
+        JsonPointer path = pointer(operation, "path");
+
+        return switch (op) {
+            case "add" -> add(document, path, value(operation));
+            case "remove" -> {
+                remove(document, path);
+                yield document;
+            }
+            case "replace" -> {
+                existing(document, path);
+                if (path.matches()) {
+                    yield value(operation).deepCopy();
+                }
+                remove(document, path);
+                yield add(document, path, value(operation));
+            }
+            case "move" -> {
+                JsonPointer from = pointer(operation, "from");
+                if (path.toString()
+                        .startsWith(from + "/")) {
+                    throw new IllegalArgumentException("Cannot move " + from + " into its own child " + path);
+                }
+                JsonNode moved = existing(document, from);
+                remove(document, from);
+                yield add(document, path, moved);
+            }
+            case "copy" -> add(document, path, existing(document, pointer(operation, "from")).deepCopy());
+            case "test" -> {
+                if (!existing(document, path).equals(value(operation))) {
+                    throw new IllegalArgumentException("Test failed at " + path);
+                }
+                yield document;
+            }
+            default -> throw new IllegalArgumentException("Unsupported JSON Patch operation: " + op);
+        };
+    }
+
+    private static JsonNode add(JsonNode document, JsonPointer path, JsonNode value) {
+        if (path.matches()) {
+            return value.deepCopy();
+        }
+        JsonNode parent = existing(document, path.head());
+        String key = path.last()
+                         .getMatchingProperty();
+        if (parent instanceof ObjectNode object) {
+            object.set(key, value.deepCopy());
+        } else if (parent instanceof ArrayNode array) {
+            int index = "-".equals(key) ? array.size() : index(key, array.size());
+            array.insert(index, value.deepCopy());
+        } else {
+            throw new IllegalArgumentException("Cannot add to a scalar at " + path.head());
+        }
+        return document;
+    }
+
+    private static void remove(JsonNode document, JsonPointer path) {
+        if (path.matches()) {
+            throw new IllegalArgumentException("Cannot remove the whole document");
+        }
+        existing(document, path);
+        JsonNode parent = document.at(path.head());
+        String key = path.last()
+                         .getMatchingProperty();
+        if (parent instanceof ObjectNode object) {
+            object.remove(key);
+        } else {
+            ((ArrayNode) parent).remove(index(key, parent.size() - 1));
+        }
+    }
+
+    private static JsonNode existing(JsonNode document, JsonPointer path) {
+        JsonNode node = document.at(path);
+        if (node.isMissingNode()) {
+            throw new IllegalArgumentException("No value at " + path);
+        }
+        return node;
+    }
+
+    private static int index(String token, int max) {
+        try {
+            int index = Integer.parseInt(token);
+            if (index < 0 || index > max || (token.length() > 1 && token.startsWith("0"))) {
+                throw new IllegalArgumentException("Array index out of range: " + token);
+            }
+            return index;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid array index: " + token, e);
+        }
+    }
+
+    private static JsonPointer pointer(JsonNode operation, String field) {
+        JsonNode pointer = operation.get(field);
+        if (pointer == null || !pointer.isTextual()) {
+            throw new IllegalArgumentException("JSON Patch operation is missing '" + field + "'");
+        }
+        return JsonPointer.compile(pointer.asText());
+    }
+
+    private static JsonNode value(JsonNode operation) {
+        JsonNode value = operation.get("value");
+        if (value == null) {
+            throw new IllegalArgumentException("JSON Patch operation is missing 'value'");
+        }
+        return value;
+    }
+}
@@ -1,20 +1,40 @@
 package uk.jsikora.woodworksapi.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.jsikora.woodworksapi.dto.DraftPageCursor;
+import uk.jsikora.woodworksapi.dto.DraftRevisionDto;
+import uk.jsikora.woodworksapi.dto.DraftRevisionSummaryDto;
+import uk.jsikora.woodworksapi.dto.DraftSearchCriteria;
 import uk.jsikora.woodworksapi.dto.KitchenDraftDto;
 import uk.jsikora.woodworksapi.dto.KitchenDraftSummaryDto;
+import uk.jsikora.woodworksapi.dto.KitchenDraftSummaryPage;
 import uk.jsikora.woodworksapi.dto.SaveKitchenDraftRequest;
 import uk.jsikora.woodworksapi.entity.KitchenDraft;
 import uk.jsikora.woodworksapi.repository.KitchenDraftRepository;
-import uk.jsikora.woodworksapi.user.BaseUser;
+import uk.jsikora.woodworksapi.repository.KitchenDraftSummaryView;
+import uk.jsikora.woodworksapi.user.ProjectQuota;
+import uk.jsikora.woodworksapi.user.UserLimits;
 import uk.jsikora.woodworksapi.user.UserService;
+import uk.jsikora.woodworksapi.workService.WorkRequest;
+import uk.jsikora.woodworksapi.workService.WorkResponse;
+import uk.jsikora.woodworksapi.workService.WorkService;
+import uk.jsikora.woodworksapi.workService.nesting.NestingOptions;
+import uk.jsikora.woodworksapi.workService.nesting.NestingResult;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,76 +44,192 @@ public class KitchenDraftService {
     private final KitchenDraftRepository repository;
     private final ObjectMapper objectMapper;
     private final UserService userService;
+    private final ProjectQuota projectQuota;
+    private final WorkService workService;
+    private final DraftWorkRequestMapper draftWorkRequestMapper;
+    private final DraftCabinetsCodec draftCabinetsCodec;
+    private final DraftStorageUpgrader draftStorageUpgrader;
+    private final DraftSearchIndex draftSearchIndex;
+    private final DraftRevisionService draftRevisionService;
+    private final DraftNesting draftNesting;
+    private final DraftCutListCache draftCutListCache;
 
     @Transactional
     public KitchenDraftDto saveDraft(Long userId, SaveKitchenDraftRequest request) {
-        BaseUser user = userService.findById(userId)
+        UserLimits limits = userService.findLimits(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (user.getProjectCount() >= user.getMaxProjects()) {
-            throw new RuntimeException("Przekroczono limit projektów dla Twojego konta (" + user.getMaxProjects() + ").");
-        }
-
-        if (request.getCabinets().size() > user.getMaxCabinetsPerProject()) {
-            throw new RuntimeException("Przekroczono limit szafek na projekt (" + user.getMaxCabinetsPerProject() + ").");
+        if (request.getCabinets().size() > limits.maxCabinetsPerProject()) {
+            throw new RuntimeException("Przekroczono limit szafek na projekt (" + limits.maxCabinetsPerProject() + ").");
         }
 
         KitchenDraft draft = new KitchenDraft();
         draft.setUserId(userId);
         draft.setName(request.getName());
         
-        try {
-            draft.setCabinetsJson(objectMapper.writeValueAsString(request.getCabinets()));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to serialize cabinets", e);
-        }
+        writeCabinets(draft, request.getCabinets());
 
+        projectQuota.reserve(userId);
         draft = repository.save(draft);
-        userService.incrementProjectCount(userId);
+        draftRevisionService.record(draft.getId(), null, document(request.getName(), request.getCabinets()));
         
         return toDto(draft);
     }
 
     @Transactional
     public KitchenDraftDto updateDraft(Long userId, UUID uuid, SaveKitchenDraftRequest request) {
-        BaseUser user = userService.findById(userId)
+        return updateDraft(userId, uuid, request, null);
+    }
+
+    /**
+     * @throws OptimisticLockingFailureException if {@code expectedVersion} is given and the
+     *                                           draft is no longer at that version
+     */
+    @Transactional
+    public KitchenDraftDto updateDraft(Long userId, UUID uuid, SaveKitchenDraftRequest request, Long expectedVersion) {
+        UserLimits limits = userService.findLimits(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        if (request.getCabinets().size() > user.getMaxCabinetsPerProject()) {
-            throw new RuntimeException("Przekroczono limit szafek na projekt (" + user.getMaxCabinetsPerProject() + ").");
-        }
+        KitchenDraft draft = repository.findByUuidAndUserId(uuid, userId)
+                .orElseThrow(() -> new RuntimeException("Draft not found"));
+        checkVersion(draft, expectedVersion);
+
+        return applyUpdate(limits, draft, currentDocument(draft), request);
+    }
+
+    /**
+     * Applies a JSON Patch, or a JSON Merge Patch when {@code mergePatch} is set, to the draft
+     * seen as {@code {"name": ..., "cabinets": [...]}}. With {@code expectedVersion} given the
+     * patch is rejected unless it was made against the current version of the draft.
+     *
+     * @throws IllegalArgumentException if the patch is invalid or does not produce a valid draft
+     * @throws OptimisticLockingFailureException if the draft has changed in the meantime
+     */
+    @Transactional
+    public KitchenDraftDto patchDraft(Long userId, UUID uuid, JsonNode patch, boolean mergePatch, Long expectedVersion) {
+        UserLimits limits = userService.findLimits(userId)
+                .orElseThrow(() -> new RuntimeException("User not found"));
 
         KitchenDraft draft = repository.findByUuidAndUserId(uuid, userId)
                 .orElseThrow(() -> new RuntimeException("Draft not found"));
+        checkVersion(draft, expectedVersion);
+
+        ObjectNode current = currentDocument(draft);
+        JsonNode patched = mergePatch ? JsonPatches.applyMergePatch(current, patch) : JsonPatches.applyPatch(current, patch);
+
+        JsonNode name = patched.path("name");
+        JsonNode cabinets = patched.path("cabinets");
+        if (!name.isTextual() || name.asText().isBlank() || !cabinets.isArray()) {
+            throw new IllegalArgumentException("Patched draft must have a name and a cabinets array");
+        }
+        return applyUpdate(limits, draft, current, new SaveKitchenDraftRequest(name.asText(), cabinets));
+    }
+
+    private static void checkVersion(KitchenDraft draft, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(draft.getVersion())) {
+            throw new OptimisticLockingFailureException("Draft " + draft.getUuid() + " is at version " + draft.getVersion() + ", not " + expectedVersion);
+        }
+    }
+
+    private KitchenDraftDto applyUpdate(UserLimits limits, KitchenDraft draft, ObjectNode before, SaveKitchenDraftRequest request) {
+        if (request.getCabinets().size() > limits.maxCabinetsPerProject()) {
+            throw new RuntimeException("Przekroczono limit szafek na projekt (" + limits.maxCabinetsPerProject() + ").");
+        }
 
         draft.setName(request.getName());
         
-        try {
-            draft.setCabinetsJson(objectMapper.writeValueAsString(request.getCabinets()));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to serialize cabinets", e);
-        }
+        writeCabinets(draft, request.getCabinets());
 
-        draft = repository.save(draft);
+        // Flushed here so the returned version and timestamp are the stored ones
+        Long readVersion = draft.getVersion();
+        draft = repository.saveAndFlush(draft);
+        lockIfUnchanged(draft, readVersion);
+        draftRevisionService.record(draft.getId(), before, document(request.getName(), request.getCabinets()));
+        draftNesting.refresh(draft.getUuid(), request.getCabinets());
+        UUID uuid = draft.getUuid();
+        afterCommit(() -> draftCutListCache.evict(uuid));
         return toDto(draft);
     }
 
+    // Revisions are numbered under the row lock of the versioned UPDATE flushed just before,
+    // which also fails a concurrent save of the same version. A save that changed nothing
+    // issued no UPDATE, so the row is locked explicitly before numbering a revision for it
+    private void lockIfUnchanged(KitchenDraft draft, Long readVersion) {
+        if (Objects.equals(draft.getVersion(), readVersion)) {
+            repository.findForUpdate(draft.getUuid(), draft.getUserId());
+        }
+    }
+
     @Transactional
     public void renameDraft(Long userId, UUID uuid, String newName) {
         KitchenDraft draft = repository.findByUuidAndUserId(uuid, userId)
                 .orElseThrow(() -> new RuntimeException("Draft not found"));
+        ObjectNode before = currentDocument(draft);
         draft.setName(newName);
-        repository.save(draft);
+        Long readVersion = draft.getVersion();
+        draft = repository.saveAndFlush(draft);
+        lockIfUnchanged(draft, readVersion);
+        draftRevisionService.record(draft.getId(), before, document(newName, before.get("cabinets")));
+    }
+
+    @Transactional(readOnly = true)
+    public List<DraftRevisionSummaryDto> getDraftRevisions(Long userId, UUID uuid) {
+        KitchenDraft draft = repository.findByUuidAndUserId(uuid, userId)
+                .orElseThrow(() -> new RuntimeException("Draft not found"));
+        return draftRevisionService.list(draft.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public DraftRevisionDto getDraftRevision(Long userId, UUID uuid, int revision) {
+        KitchenDraft draft = repository.findByUuidAndUserId(uuid, userId)
+                .orElseThrow(() -> new RuntimeException("Draft not found"));
+        return draftRevisionService.materialise(draft.getId(), revision);
+    }
+
+    /**
+     * Drafts of the user, most recently updated first, {@code limit} at a time. Pass the
+     * {@code nextCursor} of the previous page to continue the listing; null starts at the top.
+     */
+    @Transactional(readOnly = true)
+    public KitchenDraftSummaryPage getUserDraftSummaries(Long userId, DraftPageCursor cursor, int limit) {
+        // One extra row tells whether another page follows
+        Limit window = Limit.of(limit + 1);
+        List<KitchenDraftSummaryView> rows = cursor == null
+                ? repository.findSummaries(userId, window)
+                : repository.findSummariesAfter(userId, cursor.updatedAt(), cursor.id(), window);
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            KitchenDraftSummaryView last = rows.get(limit - 1);
+            nextCursor = new DraftPageCursor(last.updatedAt(), last.id()).encode();
+        }
+        List<KitchenDraftSummaryDto> drafts = rows.stream()
+                .map(row -> new KitchenDraftSummaryDto(row.uuid(), row.name(), row.createdAt(), row.updatedAt()))
+                .toList();
+        return new KitchenDraftSummaryPage(drafts, nextCursor);
     }
 
     @Transactional(readOnly = true)
-    public List<KitchenDraftSummaryDto> getUserDraftSummaries(Long userId) {
-        return repository.findByUserIdOrderByUpdatedAtDesc(userId)
+    public List<KitchenDraftSummaryDto> searchDrafts(Long userId, DraftSearchCriteria criteria) {
+        return repository.searchByCabinets(userId, draftSearchIndex.containment(criteria), draftSearchIndex.jsonPath(criteria))
                 .stream()
-                .map(this::toSummaryDto)
+                .map(row -> new KitchenDraftSummaryDto(row.getUuid(), row.getName(), row.getCreatedAt(), row.getUpdatedAt()))
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public long getDraftVersion(Long userId, UUID uuid) {
+        return repository.findVersion(uuid, userId)
+                .orElseThrow(() -> new RuntimeException("Draft not found"));
+    }
+
+    @Transactional(readOnly = true)
+    public String getDraftListingStamp(Long userId) {
+        return repository.findListingStamp(userId)
+                         .toString();
+    }
+
     @Transactional(readOnly = true)
     public KitchenDraftDto getDraft(Long userId, UUID uuid) {
         KitchenDraft draft = repository.findByUuidAndUserId(uuid, userId)
@@ -101,10 +237,116 @@ public class KitchenDraftService {
         return toDto(draft);
     }
 
+    /**
+     * Board layout of the draft. Not transactional for the same reason as
+     * {@link #generateDraftCutList}: the draft is read in the repository's own short
+     * transaction and nested after it has ended.
+     */
+    public List<NestingResult> getDraftNesting(Long userId, UUID uuid) {
+        KitchenDraft draft = repository.findByUuidAndUserId(uuid, userId)
+                .orElseThrow(() -> new RuntimeException("Draft not found"));
+        return draftNesting.nest(uuid, readCabinets(draft))
+                .orElseThrow(() -> new RuntimeException("Draft cabinets cannot be nested"));
+    }
+
+    /**
+     * Cut list of the draft as currently stored. A repeated call for an unchanged draft is
+     * answered from the version column and the cache, without loading the cabinets; only an
+     * actual generation counts towards the user's generation requests.
+     * <p>
+     * Deliberately not transactional: the draft is read in the repository's own short read
+     * transactions and generated afterwards, so no connection is held while generating. Two
+     * simultaneous first requests for one draft may both generate; the later result wins.
+     */
+    public WorkResponse generateDraftCutList(Long userId, UUID uuid, NestingOptions nestingOptions) {
+        WorkResponse cached = repository.findVersion(uuid, userId)
+                .map(version -> draftCutListCache.getIfPresent(draftCutListCache.key(uuid, version, nestingOptions)))
+                .orElse(null);
+        if (cached != null) {
+            return cached;
+        }
+
+        KitchenDraft draft = repository.findByUuidAndUserId(uuid, userId)
+                .orElseThrow(() -> new RuntimeException("Draft not found"));
+        WorkRequest request = draftWorkRequestMapper.toWorkRequest(readCabinets(draft))
+                .orElseThrow(() -> new RuntimeException("Draft cabinets cannot be converted to a cut list: " + uuid));
+
+        DraftCutListCache.DraftKey key = draftCutListCache.key(uuid, draft.getVersion(), nestingOptions);
+        WorkResponse response = workService.generateWorkResponse(request, nestingOptions);
+        userService.incrementGenerationCount(userId);
+        draftCutListCache.put(key, response);
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    public List<WorkRequest> getDraftWorkRequests(Long userId, List<UUID> uuids) {
+        Map<UUID, KitchenDraft> drafts = repository.findByUserIdAndUuidIn(userId, uuids)
+                .stream()
+                .collect(Collectors.toMap(KitchenDraft::getUuid, Function.identity()));
+
+        return uuids.stream()
+                .map(uuid -> {
+                    KitchenDraft draft = drafts.get(uuid);
+                    if (draft == null) {
+                        throw new RuntimeException("Draft not found: " + uuid);
+                    }
+                    return draftWorkRequestMapper.toWorkRequest(readCabinets(draft))
+                            .orElseThrow(() -> new RuntimeException("Draft cabinets cannot be converted to a cut list: " + uuid));
+                })
+                .toList();
+    }
+
     @Transactional
     public void deleteDraft(Long userId, UUID uuid) {
-        repository.deleteByUuidAndUserId(uuid, userId);
-        userService.decrementProjectCount(userId);
+        if (repository.deleteByUuidAndUserId(uuid, userId) > 0) {
+            projectQuota.release(userId);
+        }
+        afterCommit(() -> {
+            draftNesting.evict(uuid);
+            draftCutListCache.evict(uuid);
+        });
+    }
+
+    // Evictions wait for the commit, so that a concurrent read cannot cache the old draft again
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // The {name, cabinets} document that revisions and patches work on
+    private ObjectNode document(String name, JsonNode cabinets) {
+        ObjectNode document = objectMapper.createObjectNode();
+        document.put("name", name);
+        document.set("cabinets", cabinets);
+        return document;
+    }
+
+    private ObjectNode currentDocument(KitchenDraft draft) {
+        return document(draft.getName(), readCabinets(draft));
+    }
+
+    private void writeCabinets(KitchenDraft draft, JsonNode cabinets) {
+        draft.setCabinetsData(draftCabinetsCodec.encode(cabinets));
+        draft.setCabinetsDoc(draftSearchIndex.toDocument(cabinets));
+        draft.setCabinetsJson(null);
+    }
+
+    private JsonNode readCabinets(KitchenDraft draft) {
+        JsonNode cabinets = draft.getCabinetsData() != null
+                ? draftCabinetsCodec.decode(draft.getCabinetsData())
+                : draftCabinetsCodec.decodeText(draft.getCabinetsJson());
+        if (draftStorageUpgrader.needsUpgrade(draft)) {
+            draftStorageUpgrader.upgrade(draft, cabinets);
+        }
+        return cabinets;
     }
 
     private KitchenDraftDto toDto(KitchenDraft draft) {
@@ -113,22 +355,8 @@ public class KitchenDraftService {
         dto.setName(draft.getName());
         dto.setCreatedAt(draft.getCreatedAt());
         dto.setUpdatedAt(draft.getUpdatedAt());
-        
-        try {
-            dto.setCabinets(objectMapper.readTree(draft.getCabinetsJson()));
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to deserialize cabinets", e);
-        }
-        
+        dto.setVersion(draft.getVersion());
+        dto.setCabinets(readCabinets(draft));
         return dto;
     }
-
-    private KitchenDraftSummaryDto toSummaryDto(KitchenDraft draft) {
-        return new KitchenDraftSummaryDto(
-            draft.getUuid(),
-            draft.getName(),
-            draft.getCreatedAt(),
-            draft.getUpdatedAt()
-        );
-    }
 }
@@ -0,0 +1,11 @@
+package uk.jsikora.woodworksapi.service;
+
+/**
+ * The requested revision of a draft never existed or has been pruned.
+ */
+public class RevisionNotFoundException extends RuntimeException {
+
+    public RevisionNotFoundException(int revision) {
+        super("Revision not found: " + revision);
+    }
+}
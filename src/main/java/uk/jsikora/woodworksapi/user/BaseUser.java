@@ -1,6 +1,7 @@
 package uk.jsikora.woodworksapi.user;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
@@ -16,6 +17,7 @@ import java.util.UUID;
 @Data
 @Builder
 @Entity
+@EntityListeners(BaseUserCacheListener.class)
 @AllArgsConstructor
 public class BaseUser {
 
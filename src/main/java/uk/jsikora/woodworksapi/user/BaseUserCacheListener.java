@@ -0,0 +1,42 @@
+package uk.jsikora.woodworksapi.user;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts the cached limits of a user whose row is changed or removed through JPA, so changes
+ * of {@code max_projects} and profile data are seen without waiting for the cache to expire.
+ * Inside a transaction the eviction waits for the commit, so that a concurrent read cannot
+ * cache the old row again. Rows changed with plain SQL are picked up when the entry expires,
+ * or by calling {@link UserService#evict(Long)}.
+ */
+@Component
+public class BaseUserCacheListener {
+
+    // Lazy: the user repository, and so the service, is built after the listeners
+    private final UserService userService;
+
+    public BaseUserCacheListener(@Lazy UserService userService) {
+        this.userService = userService;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void changed(BaseUser user) {
+        Long userId = user.getId();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userService.evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userService.evict(userId);
+            }
+        });
+    }
+}
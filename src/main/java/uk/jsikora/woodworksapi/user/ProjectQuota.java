@@ -0,0 +1,91 @@
+package uk.jsikora.woodworksapi.user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Project quota enforced by the database instead of a read-then-write check. A slot is taken
+ * with one conditional {@code UPDATE}, so parallel saves of one account never overshoot
+ * {@code max_projects}. Inside a transaction the statement is deferred to just before commit:
+ * the user row is locked only for the commit itself rather than for the whole save, a
+ * rejection rolls the save back, and a rollback gives the slot back on its own. No second
+ * connection is needed per save.
+ */
+@Component
+public class ProjectQuota {
+
+    private static final String RESERVE = "UPDATE base_user SET project_count = project_count + 1 WHERE id = ? AND project_count < max_projects";
+    private static final String RELEASE = "UPDATE base_user SET project_count = project_count - 1 WHERE id = ? AND project_count > 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserService userService;
+    private final Timer granted;
+    private final Timer rejected;
+
+    public ProjectQuota(JdbcTemplate jdbcTemplate, UserService userService, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userService = userService;
+        this.granted = reservationTimer(meterRegistry, "granted");
+        this.rejected = reservationTimer(meterRegistry, "rejected");
+    }
+
+    /**
+     * Takes one project slot of the user, just before the surrounding transaction commits if
+     * there is one.
+     *
+     * @throws RuntimeException if the user has no free slot left, from the commit when deferred
+     */
+    public void reserve(Long userId) {
+        beforeCommit(() -> reserveNow(userId));
+    }
+
+    /**
+     * Gives one project slot back, just before the surrounding transaction commits if there is
+     * one.
+     */
+    public void release(Long userId) {
+        beforeCommit(() -> jdbcTemplate.update(RELEASE, userId));
+    }
+
+    private void reserveNow(Long userId) {
+        long start = System.nanoTime();
+        boolean reserved = jdbcTemplate.update(RESERVE, userId) > 0;
+        (reserved ? granted : rejected).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!reserved) {
+            int maxProjects = userService.findLimits(userId)
+                                         .map(UserLimits::maxProjects)
+                                         .orElseThrow(() -> new RuntimeException("User not found"));
+            throw new RuntimeException("Przekroczono limit projektów dla Twojego konta (" + maxProjects + ").");
+        }
+    }
+
+    // Runs in the caller's transaction and on its connection, as late as possible so the row
+    // lock taken by the UPDATE is held only until the commit that follows
+    private static void beforeCommit(Runnable statement) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            statement.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                statement.run();
+            }
+        });
+    }
+
+    private static Timer reservationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("woodworks.quota.reservation")
+                    .description("Time taken to reserve a project slot")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+    }
+}
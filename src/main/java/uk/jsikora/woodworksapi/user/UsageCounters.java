@@ -0,0 +1,84 @@
+package uk.jsikora.woodworksapi.user;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind usage counters. Increments only merge into a per-user entry of a concurrent map;
+ * a flush takes the entries out and writes them with one transactional batch of relative
+ * {@code UPDATE}s, so concurrent requests never lose an increment, the hot path does no
+ * database work and idle users do not stay in the map.
+ */
+@Slf4j
+@Component
+public class UsageCounters {
+
+    private static final String ADD_GENERATIONS = "UPDATE base_user SET generation_request_count = generation_request_count + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+    // Not synchronized: a virtual thread blocked on JDBC inside a monitor would pin its carrier
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public UsageCounters(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    public void addGenerations(Long userId, long count) {
+        generations.merge(userId, count, Long::sum);
+    }
+
+    /**
+     * Writes all accumulated deltas and returns the ids of the users whose rows changed.
+     * A failed batch is rolled back as a whole and its deltas are retried on the next flush.
+     */
+    public List<Long> flush() {
+        flushLock.lock();
+        try {
+            return flush(generations, ADD_GENERATIONS);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private List<Long> flush(Map<Long, Long> counters, String sql) {
+        List<Long> userIds = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        // remove() takes an entry atomically, an increment racing with it starts a new one
+        for (Long userId : counters.keySet()) {
+            Long delta = counters.remove(userId);
+            if (delta != null && delta != 0) {
+                userIds.add(userId);
+                args.add(new Object[]{delta, userId});
+            }
+        }
+        if (args.isEmpty()) {
+            return userIds;
+        }
+
+        try {
+            transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, args));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Flushing {} usage counter(s) failed, retrying on the next flush", args.size(), e);
+            for (Object[] arg : args) {
+                counters.merge((Long) arg[1], (Long) arg[0], Long::sum);
+            }
+            return List.of();
+        }
+        return userIds;
+    }
+}
@@ -0,0 +1,11 @@
+package uk.jsikora.woodworksapi.user;
+
+/**
+ * Immutable copy of the plan limits of a user, safe to cache and share between threads.
+ */
+public record UserLimits(Long userId, int maxProjects, int maxCabinetsPerProject) {
+
+    static UserLimits of(BaseUser user) {
+        return new UserLimits(user.getId(), user.getMaxProjects(), user.getMaxCabinetsPerProject());
+    }
+}
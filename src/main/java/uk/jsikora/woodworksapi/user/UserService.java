@@ -10,8 +10,17 @@ public interface UserService {
     Optional<BaseUser> findByProviderAndProviderId(AuthProvider provider, String providerId);
     BaseUser registerOAuthUser(BaseUser baseUser);
     Optional<BaseUser> findById(Long id);
+
+    /**
+     * Plan limits of the user, served from a cache on the hot path of draft saves.
+     */
+    Optional<UserLimits> findLimits(Long userId);
+
+    /**
+     * Drops the cached copy of the user, to be called after changing the row outside this service.
+     */
+    void evict(Long userId);
     
     void incrementGenerationCount(Long userId);
-    void incrementProjectCount(Long userId);
-    void decrementProjectCount(Long userId);
+    void incrementGenerationCount(Long userId, long count);
 }
\ No newline at end of file
@@ -1,17 +1,40 @@
 package uk.jsikora.woodworksapi.user;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import uk.jsikora.woodworksapi.auth.AuthProvider;
 
+import java.time.Duration;
 import java.util.Optional;
 
 @Service
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UsageCounters usageCounters;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    // Limits by user id; JPA writes of a user evict its entry through BaseUserCacheListener
+    private final Cache<Long, UserLimits> limitsById;
+
+    public UserServiceImpl(UserRepository userRepository,
+                           UsageCounters usageCounters,
+                           @Value("${woodworks.user.cache-size:10000}") long cacheSize,
+                           @Value("${woodworks.user.cache-ttl-ms:300000}") long cacheTtlMillis,
+                           MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.usageCounters = usageCounters;
+        this.limitsById = Caffeine.newBuilder()
+                                 .maximumSize(cacheSize)
+                                 .expireAfterWrite(Duration.ofMillis(cacheTtlMillis))
+                                 .recordStats()
+                                 .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, limitsById, "user-limits");
     }
 
     @Override
@@ -52,30 +75,33 @@ public class UserServiceImpl implements UserService {
         return userRepository.findById(id);
     }
 
+    @Override
+    public Optional<UserLimits> findLimits(Long userId) {
+        return Optional.ofNullable(limitsById.get(userId, key -> userRepository.findById(key)
+                                                                               .map(UserLimits::of)
+                                                                               .orElse(null)));
+    }
 
     @Override
-    public void incrementGenerationCount(Long userId) {
-        userRepository.findById(userId).ifPresent(user -> {
-            user.setGenerationRequestCount(user.getGenerationRequestCount() + 1);
-            userRepository.save(user);
-        });
+    public void evict(Long userId) {
+        limitsById.invalidate(userId);
     }
 
+
     @Override
-    public void incrementProjectCount(Long userId) {
-        userRepository.findById(userId).ifPresent(user -> {
-            user.setProjectCount(user.getProjectCount() + 1);
-            userRepository.save(user);
-        });
+    public void incrementGenerationCount(Long userId) {
+        incrementGenerationCount(userId, 1);
     }
 
     @Override
-    public void decrementProjectCount(Long userId) {
-        userRepository.findById(userId).ifPresent(user -> {
-            if (user.getProjectCount() > 0) {
-                user.setProjectCount(user.getProjectCount() - 1);
-                userRepository.save(user);
-            }
-        });
+    public void incrementGenerationCount(Long userId, long count) {
+        usageCounters.addGenerations(userId, count);
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${woodworks.usage.flush-interval-ms:5000}")
+    public void flushUsageCounters() {
+        // The counters are not part of the cached limits, so nothing is evicted
+        usageCounters.flush();
     }
 }
@@ -0,0 +1,10 @@
+package uk.jsikora.woodworksapi.workService;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * @param requests   kitchens sent inline
+ * @param draftUuids saved drafts of the caller to include in the batch
+ */
+public record BatchWorkRequest(List<WorkRequest> requests, List<UUID> draftUuids) {}
@@ -0,0 +1,16 @@
+package uk.jsikora.woodworksapi.workService;
+
+import lombok.Data;
+import uk.jsikora.woodworksapi.workService.takeoff.KitchenTakeoff;
+
+import java.util.List;
+
+@Data
+public class BatchWorkResponse {
+    private String status;
+    private List<WorkResponse> responses;
+    // Identical items of every order merged, counts multiplied out by cabinet count
+    private List<Item> materialTakeoff;
+    // Quantities and cost of all kitchens together
+    private KitchenTakeoff takeoff;
+}
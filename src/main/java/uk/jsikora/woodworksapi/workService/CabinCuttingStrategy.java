@@ -2,6 +2,10 @@ package uk.jsikora.woodworksapi.workService;
 
 import java.util.List;
 
+/**
+ * Generator of the cut list for one or more cabinet types. Implementations are picked up as
+ * Spring beans by {@link CabinCuttingStrategyRegistry}; every {@link CabinType} needs exactly one.
+ */
 public interface CabinCuttingStrategy {
     boolean supports(CabinType type);
     List<Item> generateItems(WorkRequest.CabinRequest cabinRequest);
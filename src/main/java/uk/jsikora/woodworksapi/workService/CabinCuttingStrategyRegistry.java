@@ -0,0 +1,52 @@
+package uk.jsikora.woodworksapi.workService;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Constant-time lookup of the generator for a cabinet type. Every {@link CabinCuttingStrategy}
+ * bean is registered at startup; a type claimed by two generators or left without one fails
+ * the application start instead of the first request of that type.
+ */
+@Slf4j
+@Component
+public class CabinCuttingStrategyRegistry {
+
+    private final Map<CabinType, CabinCuttingStrategy> strategies = new EnumMap<>(CabinType.class);
+
+    public CabinCuttingStrategyRegistry(List<CabinCuttingStrategy> generators) {
+        for (CabinCuttingStrategy generator : generators) {
+            for (CabinType type : CabinType.values()) {
+                if (!generator.supports(type)) {
+                    continue;
+                }
+                CabinCuttingStrategy existing = strategies.putIfAbsent(type, generator);
+                if (existing != null) {
+                    throw new IllegalStateException("Cabin type " + type + " is supported by both "
+                                                            + existing.getClass().getSimpleName() + " and " + generator.getClass().getSimpleName());
+                }
+            }
+        }
+
+        List<CabinType> missing = Arrays.stream(CabinType.values())
+                                        .filter(type -> !strategies.containsKey(type))
+                                        .toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("No generator registered for cabin types " + missing);
+        }
+        log.info("Registered cabin generators: {}", strategies);
+    }
+
+    public CabinCuttingStrategy get(CabinType type) {
+        CabinCuttingStrategy strategy = type != null ? strategies.get(type) : null;
+        if (strategy == null) {
+            throw new IllegalArgumentException("Nieobsługiwany typ: " + type);
+        }
+        return strategy;
+    }
+}
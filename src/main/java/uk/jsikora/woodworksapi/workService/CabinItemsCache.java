@@ -0,0 +1,93 @@
+package uk.jsikora.woodworksapi.workService;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesChangedEvent;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesRegistry;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Memoises generated items per cabinet. Generators only depend on the cabinet geometry and
+ * hardware, so requests differing just in name, colours or cabinet count share one entry.
+ * Bounded by the total number of cached items (Caffeine's W-TinyLFU eviction keeps the
+ * standard carcasses), with hit/miss counts published as {@code cache.*{cache=cabinet-items}}.
+ * Keyed by the rules version as well, so a generation still running on replaced rules cannot
+ * put its output under the new rules; emptied whenever the rules change to free the memory.
+ */
+@Component
+public class CabinItemsCache {
+
+    private final Cache<CabinKey, List<Item>> cache;
+    private final GenerationRulesRegistry rulesRegistry;
+
+    public CabinItemsCache(@Value("${woodworks.generation.cache.max-items:200000}") long maxItems,
+                           GenerationRulesRegistry rulesRegistry,
+                           MeterRegistry meterRegistry) {
+        this.rulesRegistry = rulesRegistry;
+        this.cache = Caffeine.newBuilder()
+                             .maximumWeight(maxItems)
+                             .weigher((CabinKey key, List<Item> items) -> Math.max(items.size(), 1))
+                             .recordStats()
+                             .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "cabinet-items");
+    }
+
+    public List<Item> get(WorkRequest.CabinRequest cabin, Function<WorkRequest.CabinRequest, List<Item>> generator) {
+        // Read before generating: the generator then uses these rules or newer ones, never older
+        CabinKey key = CabinKey.of(cabin, rulesRegistry.current()
+                                                       .version());
+        return cache.get(key, k -> List.copyOf(generator.apply(cabin)));
+    }
+
+    @EventListener(GenerationRulesChangedEvent.class)
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Canonical form of a cabinet: missing optional values are replaced with the defaults the
+     * generators assume, and options a cabinet type ignores are dropped.
+     */
+    record CabinKey(CabinType cabinType,
+                    int width,
+                    int height,
+                    int depth,
+                    int thickness,
+                    List<WorkRequest.DrawerConfig> drawers,
+                    int doorCount,
+                    boolean hasOvenDrawer,
+                    int baseboardHeight,
+                    int legDiameter,
+                    boolean plinthDrawer,
+                    DrawerSystem drawerSystem,
+                    String rulesVersion) {
+
+        static CabinKey of(WorkRequest.CabinRequest cabin, String rulesVersion) {
+            CabinType type = cabin.cabinType();
+            int baseboardHeight = cabin.baseboardHeight() != null ? Math.max(cabin.baseboardHeight(), 0) : 0;
+            boolean plinthDrawer = baseboardHeight > 0 && Boolean.TRUE.equals(cabin.plinthDrawer());
+            int legDiameter = plinthDrawer && cabin.legDiameter() != null ? cabin.legDiameter() : 60;
+
+            return new CabinKey(type,
+                                cabin.width(),
+                                cabin.height(),
+                                cabin.depth(),
+                                cabin.thickness(),
+                                type == CabinType.DRAWERS && cabin.drawers() != null ? List.copyOf(cabin.drawers()) : List.of(),
+                                type == CabinType.DOORS && cabin.doorCount() != null ? cabin.doorCount() : 1,
+                                type == CabinType.OVEN && Boolean.TRUE.equals(cabin.hasOvenDrawer()),
+                                baseboardHeight,
+                                legDiameter,
+                                plinthDrawer,
+                                type == CabinType.DRAWERS ? cabin.drawerSystem() : null,
+                                rulesVersion);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package uk.jsikora.woodworksapi.workService;
+
+/**
+ * Banded edges of a panel: how many of its two edges as long as its {@code width} and of its
+ * two edges as long as its {@code height} get edge banding.
+ */
+public record EdgeBanding(int widthEdges, int heightEdges) {
+
+    public static final EdgeBanding NONE = new EdgeBanding(0, 0);
+    public static final EdgeBanding ALL = new EdgeBanding(2, 2);
+    // The one visible front edge of a carcass part
+    public static final EdgeBanding ONE_WIDTH = new EdgeBanding(1, 0);
+    public static final EdgeBanding ONE_HEIGHT = new EdgeBanding(0, 1);
+
+    public EdgeBanding {
+        if (widthEdges < 0 || widthEdges > 2 || heightEdges < 0 || heightEdges > 2) {
+            throw new IllegalArgumentException("A panel has two edges of each length, got " + widthEdges + " and " + heightEdges);
+        }
+    }
+
+    /**
+     * Banded length of one panel of the given size, in millimetres.
+     */
+    public long length(int width, int height) {
+        return (long) widthEdges * width + (long) heightEdges * height;
+    }
+}
@@ -0,0 +1,49 @@
+package uk.jsikora.woodworksapi.workService;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executor of batch generation. A fixed pool of platform threads by default; with
+ * {@code spring.threads.virtual.enabled} (the {@code virtual} profile) a virtual thread per
+ * task, limited to the same number of concurrent tasks since generation is CPU bound.
+ */
+@Configuration
+public class GenerationExecutorConfig {
+
+    public static final String GENERATION_EXECUTOR = "generationExecutor";
+
+    @Bean(GENERATION_EXECUTOR)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor generationExecutor(@Value("${woodworks.generation.pool-size:0}") int poolSize,
+                                                @Value("${woodworks.generation.queue-capacity:1000}") int queueCapacity) {
+        int threads = threads(poolSize);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("generation-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(GENERATION_EXECUTOR)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor virtualGenerationExecutor(@Value("${woodworks.generation.pool-size:0}") int poolSize) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("generation-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(threads(poolSize));
+        return executor;
+    }
+
+    private static int threads(int poolSize) {
+        return poolSize > 0 ? poolSize : Runtime.getRuntime()
+                                                .availableProcessors();
+    }
+}
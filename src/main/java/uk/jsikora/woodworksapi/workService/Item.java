@@ -10,5 +10,28 @@ import uk.jsikora.woodworksapi.workService.generators.ItemType;
  * @param thickness
  * @param material
  * @param type
+ * @param banding   edges of every piece that get edge banding
  */
-public record Item(String name, int width, int height, int thickness, int count, MaterialType material, ItemType type) {}
+public record Item(String name, int width, int height, int thickness, int count, MaterialType material, ItemType type, EdgeBanding banding) {
+
+    public Item {
+        if (banding == null) {
+            banding = EdgeBanding.NONE;
+        }
+    }
+
+    public Item(String name, int width, int height, int thickness, int count, MaterialType material, ItemType type) {
+        this(name, width, height, thickness, count, material, type, EdgeBanding.NONE);
+    }
+
+    public Item withCount(int count) {
+        return new Item(name, width, height, thickness, count, material, type, banding);
+    }
+
+    /**
+     * Edge banding of all {@code count} pieces, in millimetres.
+     */
+    public long bandedLength() {
+        return banding.length(width, height) * count;
+    }
+}
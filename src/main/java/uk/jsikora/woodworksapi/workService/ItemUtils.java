@@ -1,35 +1,83 @@
 package uk.jsikora.woodworksapi.workService;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 import uk.jsikora.woodworksapi.workService.generators.ItemType;
 
 public class ItemUtils {
 
+    /**
+     * Merges items with the same name, dimensions, material, type and banding, summing their counts.
+     * Items keep the order of their first occurrence. Uses an open-addressing table over
+     * primitive arrays: no key objects, no boxed counts, and items whose count does not
+     * change are returned as they are.
+     */
     public static List<Item> aggregateItems(List<Item> items) {
-        return items.stream()
-                    .collect(Collectors.groupingBy(item -> new ItemKey(item.name(), item.width(), item.height(), item.thickness(), item.material(), item.type()),
-                                                   Collectors.summingInt(Item::count)))
-                    .entrySet()
-                    .stream()
-                    .map(entry -> new Item(entry.getKey()
-                                                .name(),
-                                           entry.getKey()
-                                                .width(),
-                                           entry.getKey()
-                                                .height(),
-                                           entry.getKey()
-                                                .thickness(),
-                                           entry.getValue(),
-                                           entry.getKey()
-                                                .material(),
-                                           entry.getKey()
-                                                .type()))
-                    .toList();
+        int size = items.size();
+        if (size <= 1) {
+            return List.copyOf(items);
+        }
+
+        int capacity = Integer.highestOneBit(size * 2 - 1) << 1;
+        int mask = capacity - 1;
+        int[] table = new int[capacity];      // entry index + 1, 0 marks a free slot
+        int[] representative = new int[size]; // index of the first item of every entry
+        int[] counts = new int[size];
+        int entries = 0;
+
+        for (int i = 0; i < size; i++) {
+            Item item = items.get(i);
+            int slot = hash(item) & mask;
+            while (true) {
+                int entry = table[slot] - 1;
+                if (entry < 0) {
+                    table[slot] = entries + 1;
+                    representative[entries] = i;
+                    counts[entries++] = item.count();
+                    break;
+                }
+                if (sameKey(items.get(representative[entry]), item)) {
+                    counts[entry] += item.count();
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        Item[] aggregated = new Item[entries];
+        for (int entry = 0; entry < entries; entry++) {
+            Item item = items.get(representative[entry]);
+            aggregated[entry] = item.count() == counts[entry]
+                    ? item
+                    : item.withCount(counts[entry]);
+        }
+        return Collections.unmodifiableList(Arrays.asList(aggregated));
     }
 
-    private record ItemKey(String name, int width, int height, int thickness, MaterialType material, ItemType type) {}
+    private static int hash(Item item) {
+        long dimensions = ((long) item.width() << 32) | (item.height() & 0xFFFFFFFFL);
+        int h = Objects.hashCode(item.name());
+        h = 31 * h + Long.hashCode(dimensions);
+        h = 31 * h + item.thickness();
+        h = 31 * h + (item.material() != null ? item.material().ordinal() : -1);
+        h = 31 * h + (item.type() != null ? item.type().ordinal() : -1);
+        h = 31 * h + item.banding().hashCode();
+        // Spread the high bits, the table index only uses the low ones
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean sameKey(Item a, Item b) {
+        return a.width() == b.width()
+                && a.height() == b.height()
+                && a.thickness() == b.thickness()
+                && a.material() == b.material()
+                && a.type() == b.type()
+                && a.banding().equals(b.banding())
+                && (a.name() == b.name() || Objects.equals(a.name(), b.name()));
+    }
 
     public static void addPlinthItems(List<Item> items, WorkRequest.CabinRequest cabinRequest, int width, int depth, int thickness) {
         int baseboardHeight = cabinRequest.baseboardHeight() != null ? cabinRequest.baseboardHeight() : 0;
@@ -57,7 +105,7 @@ public class ItemUtils {
 
             // Front panel
             int frontHeight = baseboardHeight - 4;
-            items.add(new Item("[Szuflada cokołowa] Front", width - 4, frontHeight, thickness, 1, MaterialType.PLYTA_MEBLOWA, ItemType.PLINTH));
+            items.add(new Item("[Szuflada cokołowa] Front", width - 4, frontHeight, thickness, 1, MaterialType.PLYTA_MEBLOWA, ItemType.PLINTH, EdgeBanding.ALL));
 
             // Drawer Box
             int boxDepth = Math.min(400, depth - 100);
@@ -65,9 +113,9 @@ public class ItemUtils {
             
             // Box front/back (internal)
             int internalFrontWidth = drawerWidth - (2 * thickness);
-            items.add(new Item("[Szuflada cokołowa] Plecy", internalFrontWidth, boxHeight, thickness, 2, MaterialType.PLYTA_MEBLOWA, ItemType.DRAWER_BOX));
+            items.add(new Item("[Szuflada cokołowa] Plecy", internalFrontWidth, boxHeight, thickness, 2, MaterialType.PLYTA_MEBLOWA, ItemType.DRAWER_BOX, EdgeBanding.ONE_WIDTH));
             // Box bottom
-            items.add(new Item("[Szuflada cokołowa] Dno", drawerWidth, boxDepth, thickness, 1, MaterialType.PLYTA_MEBLOWA, ItemType.DRAWER_BOTTOM));
+            items.add(new Item("[Szuflada cokołowa] Dno", drawerWidth, boxDepth, thickness, 1, MaterialType.PLYTA_MEBLOWA, ItemType.DRAWER_BOTTOM, EdgeBanding.NONE));
         } else {
             addStandardPlinth(items, cabinRequest, width, depth, thickness, baseboardHeight);
         }
@@ -77,6 +125,7 @@ public class ItemUtils {
         // Standard plinth
         // Usually just a front panel, maybe sides if returned?
         // Let's assume just front panel for now.
-        items.add(new Item("[Cokół] Front", width, baseboardHeight, thickness, 1, MaterialType.PLYTA_MEBLOWA, ItemType.PLINTH));
+        // Bottom edge banded against floor moisture
+        items.add(new Item("[Cokół] Front", width, baseboardHeight, thickness, 1, MaterialType.PLYTA_MEBLOWA, ItemType.PLINTH, EdgeBanding.ONE_WIDTH));
     }
 }
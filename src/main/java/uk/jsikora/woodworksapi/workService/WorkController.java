@@ -1,43 +1,169 @@
 package uk.jsikora.woodworksapi.workService;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import uk.jsikora.woodworksapi.auth.CurrentUserResolver;
+import uk.jsikora.woodworksapi.controller.ETags;
+import uk.jsikora.woodworksapi.service.KitchenDraftService;
 import uk.jsikora.woodworksapi.user.UserService;
+import uk.jsikora.woodworksapi.workService.nesting.NestingOptions;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
 @RestController
 @RequiredArgsConstructor
 public class WorkController {
 
     private final WorkService workService;
     private final UserService userService;
+    private final CurrentUserResolver currentUserResolver;
+    private final KitchenDraftService kitchenDraftService;
+    private final ObjectMapper objectMapper;
+    private final WorkResponseETags workResponseETags;
+
+    @Value("${woodworks.generation.max-batch-size:500}")
+    private int maxBatchSize;
 
+    /**
+     * The response carries a weak ETag derived from the request, its options and the rules
+     * version. Repeating the same request with it in {@code If-None-Match} fails with 412, as
+     * for any conditional POST, without generating (or counting) anything until the rules
+     * change.
+     */
     @PostMapping("/cut-list/generate")
-    public ResponseEntity<WorkResponse> generateItems(@RequestBody WorkRequest request, Authentication authentication) {
-        Long userId = getUserId(authentication);
+    public ResponseEntity<WorkResponse> generateItems(@RequestBody WorkRequest request,
+                                                      @RequestParam(defaultValue = "false") boolean optimise,
+                                                      @RequestParam(required = false) Long timeBudgetMs,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                      Authentication authentication) {
+        Long userId = currentUserResolver.getUserId(authentication);
+        NestingOptions nestingOptions = NestingOptions.of(optimise, timeBudgetMs);
+        String eTag = workResponseETags.tag(request, nestingOptions);
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                                 .eTag(eTag)
+                                 .build();
+        }
+
         userService.incrementGenerationCount(userId);
-        return ResponseEntity.ok(workService.generateWorkResponse(request));
+        WorkResponse response = workService.generateWorkResponse(request, nestingOptions);
+        return ResponseEntity.ok()
+                             .eTag(eTag)
+                             .body(response);
     }
 
-    private Long getUserId(Authentication authentication) {
-        if (authentication == null) {
-            throw new RuntimeException("User not authenticated");
+    /**
+     * NDJSON variant: one line per cabinet group as soon as it is generated, followed by a
+     * final line with the status and nesting. A failure after the 200 has been sent ends the
+     * stream with a {@code {"status":"ERROR","message":...}} line instead.
+     */
+    @PostMapping(value = "/cut-list/generate/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItems(@RequestBody WorkRequest request,
+                                                             @RequestParam(defaultValue = "false") boolean optimise,
+                                                             @RequestParam(required = false) Long timeBudgetMs,
+                                                             Authentication authentication) {
+        Long userId = currentUserResolver.getUserId(authentication);
+        userService.incrementGenerationCount(userId);
+        NestingOptions nestingOptions = NestingOptions.of(optimise, timeBudgetMs);
+
+        StreamingResponseBody body = out -> streamOrFail(out, () -> {
+            WorkResponse summary = workService.generateWorkResponse(request, nestingOptions, group -> writeLine(out, group));
+            writeLine(out, summary);
+        });
+        return ResponseEntity.ok()
+                             .contentType(MediaType.APPLICATION_NDJSON)
+                             .body(body);
+    }
+
+    @PostMapping("/cut-list/generate/batch")
+    public ResponseEntity<BatchWorkResponse> generateBatch(@RequestBody BatchWorkRequest request, Authentication authentication) {
+        Long userId = currentUserResolver.getUserId(authentication);
+        List<WorkRequest> requests = batchRequests(request, userId);
+        userService.incrementGenerationCount(userId, requests.size());
+        return ResponseEntity.ok(workService.generateBatch(requests));
+    }
+
+    /**
+     * NDJSON variant: one line per kitchen in request order, followed by a final line with
+     * the combined material takeoff and cost, or with {@code {"status":"ERROR","message":...}}
+     * if a kitchen fails after streaming has started.
+     */
+    @PostMapping(value = "/cut-list/generate/batch/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBatch(@RequestBody BatchWorkRequest request, Authentication authentication) {
+        Long userId = currentUserResolver.getUserId(authentication);
+        List<WorkRequest> requests = batchRequests(request, userId);
+        userService.incrementGenerationCount(userId, requests.size());
+
+        StreamingResponseBody body = out -> streamOrFail(out, () -> {
+            BatchWorkResponse summary = workService.generateBatch(requests, response -> writeLine(out, response));
+            writeLine(out, summary);
+        });
+        return ResponseEntity.ok()
+                             .contentType(MediaType.APPLICATION_NDJSON)
+                             .body(body);
+    }
+
+    private List<WorkRequest> batchRequests(BatchWorkRequest request, Long userId) {
+        List<WorkRequest> inline = request.requests() != null ? request.requests() : List.of();
+        List<UUID> draftUuids = request.draftUuids() != null ? request.draftUuids() : List.of();
+        // Checked before any draft is loaded
+        if (inline.size() + draftUuids.size() > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Batch exceeds " + maxBatchSize + " kitchens");
+        }
+
+        List<WorkRequest> requests = new ArrayList<>(inline);
+        if (!draftUuids.isEmpty()) {
+            requests.addAll(kitchenDraftService.getDraftWorkRequests(userId, draftUuids));
+        }
+        return requests;
+    }
+
+    // The status line is already sent, so a failure can only be reported as the last line. The
+    // exception's own message may carry internals and only goes to the log
+    private void streamOrFail(OutputStream out, Runnable stream) {
+        try {
+            stream.run();
+        } catch (UncheckedIOException e) {
+            // The client has gone away, nothing left to write to
+            throw e;
+        } catch (IllegalArgumentException e) {
+            log.warn("Streamed generation rejected the request", e);
+            writeLine(out, new StreamError("ERROR", "Invalid cut list request"));
+        } catch (RuntimeException e) {
+            log.error("Streamed generation failed", e);
+            writeLine(out, new StreamError("ERROR", "Cut list generation failed"));
         }
-        
-        Object principal = authentication.getPrincipal();
-        
-        if (principal instanceof uk.jsikora.woodworksapi.user.BaseUser) {
-            return ((uk.jsikora.woodworksapi.user.BaseUser) principal).getId();
-        } else if (principal instanceof org.springframework.security.oauth2.core.user.OAuth2User) {
-            String email = ((org.springframework.security.oauth2.core.user.OAuth2User) principal).getAttribute("email");
-            return userService.findByEmail(email)
-                    .map(uk.jsikora.woodworksapi.user.BaseUser::getId)
-                    .orElseThrow(() -> new RuntimeException("User not found in database: " + email));
-        } else {
-            throw new RuntimeException("Unsupported authentication type: " + principal.getClass().getName());
+    }
+
+    record StreamError(String status, String message) {}
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 }
@@ -1,6 +1,8 @@
 package uk.jsikora.woodworksapi.workService;
 
 import lombok.Data;
+import uk.jsikora.woodworksapi.workService.nesting.NestingResult;
+import uk.jsikora.woodworksapi.workService.takeoff.KitchenTakeoff;
 
 import java.util.List;
 
@@ -8,4 +10,6 @@ import java.util.List;
 public class WorkResponse {
     private String status;
     private List<CabinetGroup> cabinetGroups;
+    private List<NestingResult> nesting;
+    private KitchenTakeoff takeoff;
 }
@@ -0,0 +1,56 @@
+package uk.jsikora.woodworksapi.workService;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import uk.jsikora.woodworksapi.controller.ETags;
+import uk.jsikora.woodworksapi.workService.nesting.NestingOptions;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesRegistry;
+
+import java.util.UUID;
+
+/**
+ * Entity tags of generated cut lists, derived from what the response is generated from: the
+ * request (or the stored draft and its version), the nesting options and the rules version.
+ * The tag is therefore known before generating, a client repeating a request with it is
+ * answered without generating anything, and the response itself never has to be serialised
+ * just to tag it. The tags are weak, since an optimised nesting search may lay the same
+ * request out differently each run.
+ */
+@Component
+public class WorkResponseETags {
+
+    private final ObjectMapper objectMapper;
+    private final GenerationRulesRegistry rulesRegistry;
+
+    public WorkResponseETags(ObjectMapper objectMapper, GenerationRulesRegistry rulesRegistry) {
+        this.objectMapper = objectMapper;
+        this.rulesRegistry = rulesRegistry;
+    }
+
+    /**
+     * Tag of the response to the request under the current rules. Take it before generating,
+     * so a response is never tagged with rules newer than the ones it was generated with.
+     */
+    public String tag(WorkRequest request, NestingOptions options) {
+        return ETags.weak(ETags.ofHash(write(request), String.valueOf(options), rulesRegistry.current()
+                                                                                              .version()));
+    }
+
+    /**
+     * Tag of the cut list of a stored draft at the given version under the current rules.
+     */
+    public String tag(UUID draftUuid, long draftVersion, NestingOptions options) {
+        return ETags.weak(ETags.ofHash(draftUuid.toString(), String.valueOf(draftVersion), String.valueOf(options),
+                                       rulesRegistry.current()
+                                                    .version()));
+    }
+
+    private String write(WorkRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize cut list request", e);
+        }
+    }
+}
@@ -1,38 +1,237 @@
 package uk.jsikora.woodworksapi.workService;
 
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import uk.jsikora.woodworksapi.workService.nesting.NestingOptimizer;
+import uk.jsikora.woodworksapi.workService.nesting.NestingOptions;
+import uk.jsikora.woodworksapi.workService.nesting.NestingService;
+import uk.jsikora.woodworksapi.workService.takeoff.TakeoffService;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
-@RequiredArgsConstructor
 public class WorkService {
 
-    private final List<CabinCuttingStrategy> generators;
+    private final CabinCuttingStrategyRegistry generators;
+    private final NestingService nestingService;
+    private final NestingOptimizer nestingOptimizer;
+    private final Executor generationExecutor;
+    private final CabinItemsCache cabinItemsCache;
+    private final TakeoffService takeoffService;
+    // Requests with at least this many cabinets are generated on several threads, 0 = never
+    private final int parallelThreshold;
+    private final int parallelism;
+    // Helpers running across all requests; one is only submitted with a permit in hand, so
+    // submitting never waits on a saturated executor
+    private final Semaphore helperPermits;
+
+    /**
+     * @param poolSize {@code woodworks.generation.pool-size}, the number of helpers of all
+     *                 requests together; 0 = one per core
+     */
+    public WorkService(CabinCuttingStrategyRegistry generators,
+                       NestingService nestingService,
+                       NestingOptimizer nestingOptimizer,
+                       @Qualifier(GenerationExecutorConfig.GENERATION_EXECUTOR) Executor generationExecutor,
+                       CabinItemsCache cabinItemsCache,
+                       TakeoffService takeoffService,
+                       @Value("${woodworks.generation.parallel-threshold:16}") int parallelThreshold,
+                       @Value("${woodworks.generation.pool-size:0}") int poolSize) {
+        this.generators = generators;
+        this.nestingService = nestingService;
+        this.nestingOptimizer = nestingOptimizer;
+        this.generationExecutor = generationExecutor;
+        this.cabinItemsCache = cabinItemsCache;
+        this.takeoffService = takeoffService;
+        this.parallelThreshold = parallelThreshold;
+        this.parallelism = poolSize > 0 ? poolSize : Runtime.getRuntime()
+                                                            .availableProcessors();
+        this.helperPermits = new Semaphore(parallelism);
+    }
 
     public WorkResponse generateWorkResponse(WorkRequest request) {
-        List<CabinetGroup> cabinetGroups = request.cabins().stream()
-                .map(cabin -> {
-                    // Find the appropriate generator
-                    List<Item> items = generators.stream()
-                            .filter(g -> g.supports(cabin.cabinType()))
-                            .findFirst()
-                            .orElseThrow(() -> new IllegalArgumentException("Nieobsługiwany typ: " + cabin.cabinType()))
-                            .generateItems(cabin);
-
-                    // Create cabinet group
-                    String cabinetName = cabin.cabinetName() != null && !cabin.cabinetName().isEmpty()
-                            ? cabin.cabinetName()
-                            : cabin.cabinType().toString();
-
-                    return new CabinetGroup(cabinetName, cabin.cabinType(), cabin.cabinCount(), items);
-                })
-                .toList();
+        return generateWorkResponse(request, NestingOptions.GREEDY);
+    }
+
+    public WorkResponse generateWorkResponse(WorkRequest request, NestingOptions nestingOptions) {
+        return generateWorkResponse(request, nestingOptions, true);
+    }
+
+    private WorkResponse generateWorkResponse(WorkRequest request, NestingOptions nestingOptions, boolean parallel) {
+        List<CabinetGroup> cabinetGroups = new ArrayList<>(request.cabins().size());
+        WorkResponse response = generateWorkResponse(request, nestingOptions, cabinetGroups::add, parallel);
+        response.setCabinetGroups(cabinetGroups);
+        return response;
+    }
+
+    /**
+     * Streaming variant: every group is handed over as soon as its generator finishes and
+     * nesting runs once all of them are done. The returned response carries no groups.
+     */
+    public WorkResponse generateWorkResponse(WorkRequest request, NestingOptions nestingOptions, Consumer<CabinetGroup> consumer) {
+        return generateWorkResponse(request, nestingOptions, consumer, true);
+    }
+
+    private WorkResponse generateWorkResponse(WorkRequest request, NestingOptions nestingOptions, Consumer<CabinetGroup> consumer, boolean parallel) {
+        List<CabinetGroup> cabinetGroups = new ArrayList<>(request.cabins().size());
+        generateCabinetGroups(request.cabins(), parallel, group -> {
+            cabinetGroups.add(group);
+            consumer.accept(group);
+        });
 
         WorkResponse response = new WorkResponse();
         response.setStatus("SUCCESS");
-        response.setCabinetGroups(cabinetGroups);
+        response.setNesting(nestingOptions.optimise()
+                                    ? nestingOptimizer.optimise(cabinetGroups, nestingOptions.timeBudget())
+                                    : nestingService.nest(cabinetGroups));
+        response.setTakeoff(takeoffService.takeoff(request, cabinetGroups));
         return response;
     }
-}
\ No newline at end of file
+
+    public BatchWorkResponse generateBatch(List<WorkRequest> requests) {
+        List<WorkResponse> responses = new ArrayList<>(requests.size());
+        BatchWorkResponse batchResponse = generateBatch(requests, responses::add);
+        batchResponse.setResponses(responses);
+        return batchResponse;
+    }
+
+    /**
+     * Generates the kitchens concurrently and hands every response to the consumer in request
+     * order as soon as it and all earlier ones are done.
+     *
+     * @return combined material takeoff of the whole batch, without the responses
+     */
+    public BatchWorkResponse generateBatch(List<WorkRequest> requests, Consumer<WorkResponse> consumer) {
+        List<CompletableFuture<WorkResponse>> futures = requests.stream()
+                // Already on the generation executor: fanning out again from its threads could starve it
+                .map(request -> CompletableFuture.supplyAsync(() -> generateWorkResponse(request, NestingOptions.GREEDY, false), generationExecutor))
+                .toList();
+
+        List<Item> orderedItems = new ArrayList<>();
+        TakeoffService.Accumulator takeoff = takeoffService.accumulator();
+        for (int i = 0; i < futures.size(); i++) {
+            WorkResponse response = join(futures.get(i));
+            List<WorkRequest.CabinRequest> cabins = requests.get(i)
+                                                            .cabins();
+            for (int j = 0; j < cabins.size(); j++) {
+                CabinetGroup group = response.getCabinetGroups()
+                                             .get(j);
+                takeoff.add(cabins.get(j), group);
+                for (Item item : group.getItems()) {
+                    orderedItems.add(item.withCount(item.count() * group.getCabinetCount()));
+                }
+            }
+            consumer.accept(response);
+        }
+
+        BatchWorkResponse batchResponse = new BatchWorkResponse();
+        batchResponse.setStatus("SUCCESS");
+        batchResponse.setMaterialTakeoff(ItemUtils.aggregateItems(orderedItems));
+        batchResponse.setTakeoff(takeoff.result());
+        return batchResponse;
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public List<CabinetGroup> generateCabinetGroups(WorkRequest request) {
+        List<CabinetGroup> cabinetGroups = new ArrayList<>(request.cabins().size());
+        generateCabinetGroups(request.cabins(), true, cabinetGroups::add);
+        return cabinetGroups;
+    }
+
+    /**
+     * Hands the groups of the cabinets to the consumer in request order. Small requests, and
+     * all of them when {@code parallel} is off, are generated on the calling thread.
+     */
+    private void generateCabinetGroups(List<WorkRequest.CabinRequest> cabins, boolean parallel, Consumer<CabinetGroup> consumer) {
+        if (!parallel || parallelThreshold <= 0 || cabins.size() < parallelThreshold) {
+            for (WorkRequest.CabinRequest cabin : cabins) {
+                consumer.accept(generateCabinetGroup(cabin));
+            }
+            return;
+        }
+
+        // The caller and the helpers claim cabinets from one counter, so the caller never waits
+        // for a cabinet nobody has started and a busy executor just leaves more work to it
+        int count = cabins.size();
+        List<CompletableFuture<CabinetGroup>> groups = Stream.generate(CompletableFuture<CabinetGroup>::new)
+                .limit(count)
+                .toList();
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                generateInto(groups.get(i), cabins.get(i), next, count);
+            }
+        };
+
+        int helpers = Math.min(parallelism - 1, count - 1);
+        for (int i = 0; i < helpers && helperPermits.tryAcquire(); i++) {
+            try {
+                generationExecutor.execute(() -> {
+                    try {
+                        worker.run();
+                    } finally {
+                        helperPermits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                helperPermits.release();
+                break;
+            }
+        }
+
+        int handedOver = 0;
+        for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+            generateInto(groups.get(i), cabins.get(i), next, count);
+            while (handedOver < count && groups.get(handedOver)
+                                               .isDone()) {
+                consumer.accept(join(groups.get(handedOver++)));
+            }
+        }
+        while (handedOver < count) {
+            consumer.accept(join(groups.get(handedOver++)));
+        }
+    }
+
+    // A failure stops further claims; every earlier cabinet is already claimed, so joining in
+    // order still reaches the first failure just as the sequential loop would
+    private void generateInto(CompletableFuture<CabinetGroup> group, WorkRequest.CabinRequest cabin, AtomicInteger next, int count) {
+        try {
+            group.complete(generateCabinetGroup(cabin));
+        } catch (Throwable e) {
+            next.set(count);
+            group.completeExceptionally(e);
+        }
+    }
+
+    private CabinetGroup generateCabinetGroup(WorkRequest.CabinRequest cabin) {
+        CabinCuttingStrategy generator = generators.get(cabin.cabinType());
+        List<Item> items = cabinItemsCache.get(cabin, generator::generateItems);
+
+        // Create cabinet group
+        String cabinetName = cabin.cabinetName() != null && !cabin.cabinetName().isEmpty()
+                ? cabin.cabinetName()
+                : cabin.cabinType().toString();
+
+        return new CabinetGroup(cabinetName, cabin.cabinType(), cabin.cabinCount(), items);
+    }
+}
@@ -1,5 +1,6 @@
 package uk.jsikora.woodworksapi.workService.generators;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import uk.jsikora.woodworksapi.workService.CabinCuttingStrategy;
@@ -7,21 +8,24 @@ import uk.jsikora.woodworksapi.workService.CabinType;
 import uk.jsikora.woodworksapi.workService.Item;
 import uk.jsikora.woodworksapi.workService.ItemUtils;
 import uk.jsikora.woodworksapi.workService.WorkRequest;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRules;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesRegistry;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 
+import static uk.jsikora.woodworksapi.workService.EdgeBanding.*;
 import static uk.jsikora.woodworksapi.workService.MaterialType.HDF;
 import static uk.jsikora.woodworksapi.workService.MaterialType.PLYTA_MEBLOWA;
 import static uk.jsikora.woodworksapi.workService.generators.ItemType.*;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class DoorsCabinGenerator implements CabinCuttingStrategy {
 
-    private static final int FRONT_CLEARANCE = 4;
-    private static final int TOP_BEAM_HEIGHT = 100;
+    private final GenerationRulesRegistry rulesRegistry;
 
     @Override
     public boolean supports(CabinType cabinType) {
@@ -31,6 +35,7 @@ public class DoorsCabinGenerator implements CabinCuttingStrategy {
     @Override
     public List<Item> generateItems(WorkRequest.CabinRequest cabinRequest) {
         log.info("Generating doors cabin items.");
+        GenerationRules rules = rulesRegistry.current();
         int thickness = cabinRequest.thickness();
         int width = cabinRequest.width();
         int height = cabinRequest.height();
@@ -54,38 +59,38 @@ public class DoorsCabinGenerator implements CabinCuttingStrategy {
 
         // Boki
         // Boki
-        items.add(new Item("[Korpus] Bok (lewy)", depth, height, thickness, 1, PLYTA_MEBLOWA, CORPUS));
-        items.add(new Item("[Korpus] Bok (prawy)", depth, height, thickness, 1, PLYTA_MEBLOWA, CORPUS));
+        items.add(new Item("[Korpus] Bok (lewy)", depth, height, thickness, 1, PLYTA_MEBLOWA, CORPUS, ONE_HEIGHT));
+        items.add(new Item("[Korpus] Bok (prawy)", depth, height, thickness, 1, PLYTA_MEBLOWA, CORPUS, ONE_HEIGHT));
 
         // Spód
-        items.add(new Item("[Korpus] Wieniec", innerWidth, depth, thickness, 1, PLYTA_MEBLOWA, CORPUS));
+        items.add(new Item("[Korpus] Wieniec", innerWidth, depth, thickness, 1, PLYTA_MEBLOWA, CORPUS, ONE_WIDTH));
 
         // Belka górna (front and back or just one?)
         // Standard kitchen cabinet has 2 top beams usually.
-        items.add(new Item("[Korpus] Wieniec górny (przód)", innerWidth, TOP_BEAM_HEIGHT, thickness, 1, PLYTA_MEBLOWA, CORPUS));
-        items.add(new Item("[Korpus] Wieniec górny (tył)", innerWidth, TOP_BEAM_HEIGHT, thickness, 1, PLYTA_MEBLOWA, CORPUS));
+        items.add(new Item("[Korpus] Wieniec górny (przód)", innerWidth, rules.topBeamHeight(), thickness, 1, PLYTA_MEBLOWA, CORPUS, ONE_WIDTH));
+        items.add(new Item("[Korpus] Wieniec górny (tył)", innerWidth, rules.topBeamHeight(), thickness, 1, PLYTA_MEBLOWA, CORPUS, NONE));
 
         // Plecy (HDF)
         // Usually inserted into grooves or nailed on back.
         // Assuming nailed on back for simplicity or standard groove size.
         // Let's assume full size minus some offset if groove, or full size - 2mm.
         // Old generator: width, height, 3, 1, HDF.
-        items.add(new Item("[Korpus] Plecy", width - 2, height - 2, 3, 1, HDF, ItemType.HDF));
+        items.add(new Item("[Korpus] Plecy", width - 2, height - 2, 3, 1, HDF, ItemType.HDF, NONE));
 
         // Półka (optional, but standard usually has 1)
-        items.add(new Item("[Korpus] Półka", innerWidth - 2, depth - 20, thickness, 1, PLYTA_MEBLOWA, SHELF));
+        items.add(new Item("[Korpus] Półka", innerWidth - 2, depth - 20, thickness, 1, PLYTA_MEBLOWA, SHELF, ONE_WIDTH));
 
         // Fronts
-        int frontHeight = height - FRONT_CLEARANCE;
+        int frontHeight = height - rules.frontClearance();
         if (doorCount == 2) {
-            int singleDoorWidth = (width - FRONT_CLEARANCE * 2) / 2; // Gap in middle too?
+            int singleDoorWidth = (width - rules.frontClearance() * 2) / 2; // Gap in middle too?
             // Usually gap in middle is small.
             // Let's say (width - 4 - 2) / 2 ?
             // Let's simplify: (width - 4) / 2
-            items.add(new Item("[Korpus] Front (lewy)", singleDoorWidth, frontHeight, thickness, 1, PLYTA_MEBLOWA, FRONT));
-            items.add(new Item("[Korpus] Front (prawy)", singleDoorWidth, frontHeight, thickness, 1, PLYTA_MEBLOWA, FRONT));
+            items.add(new Item("[Korpus] Front (lewy)", singleDoorWidth, frontHeight, thickness, 1, PLYTA_MEBLOWA, FRONT, ALL));
+            items.add(new Item("[Korpus] Front (prawy)", singleDoorWidth, frontHeight, thickness, 1, PLYTA_MEBLOWA, FRONT, ALL));
         } else {
-            items.add(new Item("[Korpus] Front", width - FRONT_CLEARANCE, frontHeight, thickness, 1, PLYTA_MEBLOWA, FRONT));
+            items.add(new Item("[Korpus] Front", width - rules.frontClearance(), frontHeight, thickness, 1, PLYTA_MEBLOWA, FRONT, ALL));
         }
 
         ItemUtils.addPlinthItems(items, cabinRequest, width, depth, thickness);
@@ -1,5 +1,6 @@
 package uk.jsikora.woodworksapi.workService.generators;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import uk.jsikora.woodworksapi.workService.CabinCuttingStrategy;
@@ -8,21 +9,23 @@ import uk.jsikora.woodworksapi.workService.DrawerSystem;
 import uk.jsikora.woodworksapi.workService.Item;
 import uk.jsikora.woodworksapi.workService.ItemUtils;
 import uk.jsikora.woodworksapi.workService.WorkRequest;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRules;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesRegistry;
 
 import java.util.ArrayList;
 import java.util.List;
 
+import static uk.jsikora.woodworksapi.workService.EdgeBanding.*;
 import static uk.jsikora.woodworksapi.workService.MaterialType.HDF;
 import static uk.jsikora.woodworksapi.workService.MaterialType.PLYTA_MEBLOWA;
 import static uk.jsikora.woodworksapi.workService.generators.ItemType.*;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class DrawersCabinGenerator implements CabinCuttingStrategy {
 
-    private static final int FRONT_CLEARANCE = 4;
-    private static final int TOP_BEAM_HEIGHT = 100;
-    private static final int DRAWER_GAP = 3;
+    private final GenerationRulesRegistry rulesRegistry;
 
     @Override
     public boolean supports(CabinType cabinType) {
@@ -32,6 +35,7 @@ public class DrawersCabinGenerator implements CabinCuttingStrategy {
     @Override
     public List<Item> generateItems(WorkRequest.CabinRequest cabinRequest) {
         log.info("Generating drawers cabin items.");
+        GenerationRules rules = rulesRegistry.current();
         int thickness = cabinRequest.thickness();
         int width = cabinRequest.width();
         int height = cabinRequest.height();
@@ -47,18 +51,18 @@ public class DrawersCabinGenerator implements CabinCuttingStrategy {
 
         // Carcass
         // Boki
-        items.add(new Item("[Korpus] Bok (lewy)", depth, height, thickness, 1, PLYTA_MEBLOWA, CORPUS));
-        items.add(new Item("[Korpus] Bok (prawy)", depth, height, thickness, 1, PLYTA_MEBLOWA, CORPUS));
+        items.add(new Item("[Korpus] Bok (lewy)", depth, height, thickness, 1, PLYTA_MEBLOWA, CORPUS, ONE_HEIGHT));
+        items.add(new Item("[Korpus] Bok (prawy)", depth, height, thickness, 1, PLYTA_MEBLOWA, CORPUS, ONE_HEIGHT));
 
         // Spód
-        items.add(new Item("[Korpus] Wieniec dolny", innerWidth, depth, thickness, 1, PLYTA_MEBLOWA, CORPUS));
+        items.add(new Item("[Korpus] Wieniec dolny", innerWidth, depth, thickness, 1, PLYTA_MEBLOWA, CORPUS, ONE_WIDTH));
 
         // Belki górne
-        items.add(new Item("[Korpus] Wieniec górny (przód)", innerWidth, TOP_BEAM_HEIGHT, thickness, 1, PLYTA_MEBLOWA, CORPUS));
-        items.add(new Item("[Korpus] Wieniec górny (tył)", innerWidth, TOP_BEAM_HEIGHT, thickness, 1, PLYTA_MEBLOWA, CORPUS));
+        items.add(new Item("[Korpus] Wieniec górny (przód)", innerWidth, rules.topBeamHeight(), thickness, 1, PLYTA_MEBLOWA, CORPUS, ONE_WIDTH));
+        items.add(new Item("[Korpus] Wieniec górny (tył)", innerWidth, rules.topBeamHeight(), thickness, 1, PLYTA_MEBLOWA, CORPUS, NONE));
 
         // Plecy
-        items.add(new Item("[Korpus] Plecy", width - 2, height - 2, 3, 1, HDF, ItemType.HDF));
+        items.add(new Item("[Korpus] Plecy", width - 2, height - 2, 3, 1, HDF, ItemType.HDF, NONE));
 
         // Get drawers configuration
         List<WorkRequest.DrawerConfig> drawers = cabinRequest.drawers();
@@ -76,29 +80,26 @@ public class DrawersCabinGenerator implements CabinCuttingStrategy {
             // Frontend sends: (h / totalHeight) * cabinet.height.
             // So they sum up to cabinet height.
             // We should subtract gap.
-            int actualFrontHeight = drawerFrontHeight - DRAWER_GAP;
+            int actualFrontHeight = drawerFrontHeight - rules.drawerGap();
 
-            items.add(new Item("[Szuflada] Front " + (i + 1), width - FRONT_CLEARANCE, actualFrontHeight, thickness, 1, PLYTA_MEBLOWA, FRONT));
+            items.add(new Item("[Szuflada] Front " + (i + 1), width - rules.frontClearance(), actualFrontHeight, thickness, 1, PLYTA_MEBLOWA, FRONT, ALL));
 
             // Drawer Box
-            // Assuming standard drawer slides (e.g. Blum Tandembox or similar need specific calculations)
-            // Simplified box:
-            // Width = innerWidth - clearance (e.g. 13mm per side for slides -> 26mm)
-            int drawerBoxWidth = innerWidth - 26;
+            // Runner allowance and box sizes come from the drawer system's profile
+            int drawerBoxWidth = innerWidth - rules.slideAllowance(drawerSystem);
             
             int drawerBoxDepth = drawer.depth();
-            int drawerBoxHeight = Math.max(80, actualFrontHeight - 40); // Arbitrary box height logic
+            int drawerBoxHeight = rules.boxHeight(drawerSystem, actualFrontHeight);
 
             // Box sides - REMOVED as per request (bought accessory)
             // items.add(new Item("Bok szuflady " + (i + 1), drawerBoxDepth, drawerBoxHeight, thickness, 2, PLYTA_MEBLOWA));
             
             // Box back (only back needed for system drawers)
-            // Thickness 16mm
-            items.add(new Item("[Szuflada] Plecy " + (i + 1), drawerBoxWidth - 2 * 16, drawerBoxHeight, 16, 1, PLYTA_MEBLOWA, DRAWER_BOX));
+            items.add(new Item("[Szuflada] Plecy " + (i + 1), drawerBoxWidth - rules.backWidthReduction(drawerSystem), drawerBoxHeight,
+                               rules.backThickness(drawerSystem), 1, PLYTA_MEBLOWA, DRAWER_BOX, ONE_WIDTH));
             
             // Box bottom
-            // Thickness 16mm
-            items.add(new Item("[Szuflada] Dno " + (i + 1), drawerBoxWidth, drawerBoxDepth, 16, 1, PLYTA_MEBLOWA, DRAWER_BOTTOM));
+            items.add(new Item("[Szuflada] Dno " + (i + 1), drawerBoxWidth, drawerBoxDepth, rules.bottomThickness(drawerSystem), 1, PLYTA_MEBLOWA, DRAWER_BOTTOM, NONE));
         }
 
         ItemUtils.addPlinthItems(items, cabinRequest, width, depth, thickness);
@@ -1,5 +1,6 @@
 package uk.jsikora.woodworksapi.workService.generators;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import uk.jsikora.woodworksapi.workService.CabinCuttingStrategy;
@@ -7,22 +8,26 @@ import uk.jsikora.woodworksapi.workService.CabinType;
 import uk.jsikora.woodworksapi.workService.Item;
 import uk.jsikora.woodworksapi.workService.ItemUtils;
 import uk.jsikora.woodworksapi.workService.WorkRequest;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRules;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesRegistry;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 
+import static uk.jsikora.woodworksapi.workService.EdgeBanding.*;
 import static uk.jsikora.woodworksapi.workService.MaterialType.HDF;
 import static uk.jsikora.woodworksapi.workService.MaterialType.PLYTA_MEBLOWA;
 import static uk.jsikora.woodworksapi.workService.generators.ItemType.*;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class OvenCabinGenerator implements CabinCuttingStrategy {
 
-    private static final int FRONT_CLEARANCE = 4;
     private static final int OVEN_HEIGHT = 595; // Standard oven height
-    private static final int DRAWER_GAP = 3;
+
+    private final GenerationRulesRegistry rulesRegistry;
 
     @Override
     public boolean supports(CabinType cabinType) {
@@ -32,6 +37,7 @@ public class OvenCabinGenerator implements CabinCuttingStrategy {
     @Override
     public List<Item> generateItems(WorkRequest.CabinRequest cabinRequest) {
         log.info("Generating oven cabin items.");
+        GenerationRules rules = rulesRegistry.current();
         int thickness = cabinRequest.thickness();
         int width = cabinRequest.width();
         int height = cabinRequest.height();
@@ -44,12 +50,12 @@ public class OvenCabinGenerator implements CabinCuttingStrategy {
         List<Item> items = new ArrayList<>();
 
         // Carcass
-        items.add(new Item("[Korpus] Bok (lewy)", depth, height, thickness, 1, PLYTA_MEBLOWA, CORPUS));
-        items.add(new Item("[Korpus] Bok (prawy)", depth, height, thickness, 1, PLYTA_MEBLOWA, CORPUS));
-        items.add(new Item("[Korpus] Wieniec", innerWidth, depth, thickness, 1, PLYTA_MEBLOWA, CORPUS));
+        items.add(new Item("[Korpus] Bok (lewy)", depth, height, thickness, 1, PLYTA_MEBLOWA, CORPUS, ONE_HEIGHT));
+        items.add(new Item("[Korpus] Bok (prawy)", depth, height, thickness, 1, PLYTA_MEBLOWA, CORPUS, ONE_HEIGHT));
+        items.add(new Item("[Korpus] Wieniec", innerWidth, depth, thickness, 1, PLYTA_MEBLOWA, CORPUS, ONE_WIDTH));
         
         // Top beam? Usually oven cabinets have a top panel or beam.
-        items.add(new Item("[Korpus] Wieniec górny", innerWidth, depth, thickness, 1, PLYTA_MEBLOWA, CORPUS));
+        items.add(new Item("[Korpus] Wieniec górny", innerWidth, depth, thickness, 1, PLYTA_MEBLOWA, CORPUS, ONE_WIDTH));
 
         // Shelf for Oven
         // Position depends on drawer height.
@@ -63,28 +69,30 @@ public class OvenCabinGenerator implements CabinCuttingStrategy {
         if (hasDrawer) {
             // Drawer height approx 20% of total height or remaining space?
             // Frontend says 20%.
-            int drawerHeight = (int) (height * 0.2);
+            int drawerHeight = rules.ovenDrawerHeight(height);
             ovenShelfY = drawerHeight;
             
-            items.add(new Item("[Korpus] Półka pod piekarnik", innerWidth, depth, thickness, 1, PLYTA_MEBLOWA, SHELF));
+            items.add(new Item("[Korpus] Półka pod piekarnik", innerWidth, depth, thickness, 1, PLYTA_MEBLOWA, SHELF, ONE_WIDTH));
             
             // Drawer Front
-            items.add(new Item("[Szuflada] Front", width - FRONT_CLEARANCE, drawerHeight - DRAWER_GAP, thickness, 1, PLYTA_MEBLOWA, FRONT));
+            items.add(new Item("[Szuflada] Front", width - rules.frontClearance(), drawerHeight - rules.drawerGap(), thickness, 1, PLYTA_MEBLOWA, FRONT, ALL));
             
             // Drawer Box (simplified)
-            int drawerBoxHeight = Math.max(80, drawerHeight - 40);
-            items.add(new Item("[Szuflada] Plecy", innerWidth - 26 - 2 * thickness, drawerBoxHeight, thickness, 2, PLYTA_MEBLOWA, DRAWER_BOX));
-            items.add(new Item("[Szuflada] Dno", innerWidth - 26, depth - 10, thickness, 1, PLYTA_MEBLOWA, DRAWER_BOTTOM));
+            // No drawer system is chosen for the oven drawer, the default profile applies
+            int drawerBoxWidth = innerWidth - rules.slideAllowance(null);
+            int drawerBoxHeight = rules.boxHeight(null, drawerHeight);
+            items.add(new Item("[Szuflada] Plecy", drawerBoxWidth - 2 * thickness, drawerBoxHeight, thickness, 2, PLYTA_MEBLOWA, DRAWER_BOX, ONE_WIDTH));
+            items.add(new Item("[Szuflada] Dno", drawerBoxWidth, depth - rules.ovenBottomClearance(), thickness, 1, PLYTA_MEBLOWA, DRAWER_BOTTOM, NONE));
         } else {
             // Just a shelf at bottom or filler?
             // Usually a filler panel at bottom if no drawer.
-            items.add(new Item("[Korpus] Półka pod piekarnik", innerWidth, depth, thickness, 1, PLYTA_MEBLOWA, SHELF));
-            items.add(new Item("[Korpus] Blenda dolna", width - FRONT_CLEARANCE, 100, thickness, 1, PLYTA_MEBLOWA, FRONT)); // Arbitrary filler
+            items.add(new Item("[Korpus] Półka pod piekarnik", innerWidth, depth, thickness, 1, PLYTA_MEBLOWA, SHELF, ONE_WIDTH));
+            items.add(new Item("[Korpus] Blenda dolna", width - rules.frontClearance(), rules.ovenFillerHeight(), thickness, 1, PLYTA_MEBLOWA, FRONT, ALL));
         }
 
         // Plecy (usually open behind oven for ventilation, but maybe small piece at bottom?)
         // Let's add full back for now, user can cut.
-        items.add(new Item("[Korpus] Plecy", width - 2, height - 2, 3, 1, HDF, ItemType.HDF));
+        items.add(new Item("[Korpus] Plecy", width - 2, height - 2, 3, 1, HDF, ItemType.HDF, NONE));
 
         ItemUtils.addPlinthItems(items, cabinRequest, width, depth, thickness);
 
@@ -0,0 +1,5 @@
+package uk.jsikora.woodworksapi.workService.nesting;
+
+import java.util.List;
+
+public record BoardLayout(int boardNumber, List<PlacedPanel> panels, double yieldPercent) {}
@@ -0,0 +1,193 @@
+package uk.jsikora.woodworksapi.workService.nesting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Guillotine bin packer: every placement splits a free rectangle into two with a single
+ * straight cut, so the resulting layout can always be cut on a panel saw.
+ * <p>
+ * Panels are placed in the given order, each one into the free rectangle (on any open board)
+ * that leaves the shortest leftover side. Kerf is handled by inflating every panel and the
+ * usable board area by the blade width, so panels touching the trimmed edge need no extra cut.
+ */
+final class GuillotinePacker {
+
+    private final int usableLength;
+    private final int usableWidth;
+    private final int kerf;
+
+    GuillotinePacker(int usableLength, int usableWidth, int kerf) {
+        this.usableLength = usableLength;
+        this.usableWidth = usableWidth;
+        this.kerf = kerf;
+    }
+
+    long usableArea() {
+        return (long) usableLength * usableWidth;
+    }
+
+    boolean fits(Panel panel) {
+        return fitsArea(panel.length(), panel.width()) || (panel.rotatable() && fitsArea(panel.width(), panel.length()));
+    }
+
+    private boolean fitsArea(int length, int width) {
+        return length <= usableLength && width <= usableWidth;
+    }
+
+    Packing pack(List<Panel> panels) {
+        return pack(new ArrayList<>(), panels);
+    }
+
+    /**
+     * Places panels onto the given boards first, opening new ones when nothing fits.
+     * The board list is taken over by the returned packing.
+     */
+    Packing pack(List<Board> boards, List<Panel> panels) {
+        List<Panel> unplaced = new ArrayList<>();
+
+        for (Panel panel : panels) {
+            if (!fits(panel)) {
+                unplaced.add(panel);
+                continue;
+            }
+            if (!placeOnOpenBoards(boards, panel)) {
+                Board board = new Board(usableLength + kerf, usableWidth + kerf);
+                boards.add(board);
+                placeOnOpenBoards(List.of(board), panel);
+            }
+        }
+        return new Packing(boards, unplaced);
+    }
+
+    /**
+     * Copies the board keeping only the accepted placements. The spot of every dropped panel
+     * (kerf included) was cut out by guillotine cuts, so it is returned as a free rectangle.
+     */
+    Board retain(Board board, Predicate<Placement> keep) {
+        Board copy = new Board();
+        copy.free.addAll(board.free);
+        for (Placement placement : board.placements) {
+            if (keep.test(placement)) {
+                copy.placements.add(placement);
+                copy.usedArea += placement.panel()
+                                          .area();
+            } else {
+                copy.free.add(new FreeRect(placement.x(), placement.y(), placement.length() + kerf, placement.width() + kerf));
+            }
+        }
+        return copy;
+    }
+
+    private boolean placeOnOpenBoards(List<Board> boards, Panel panel) {
+        int inflatedLength = panel.length() + kerf;
+        int inflatedWidth = panel.width() + kerf;
+
+        Board bestBoard = null;
+        int bestRect = -1;
+        boolean bestRotated = false;
+        int bestShortSide = Integer.MAX_VALUE;
+        int bestLongSide = Integer.MAX_VALUE;
+
+        for (Board board : boards) {
+            List<FreeRect> free = board.free;
+            for (int i = 0; i < free.size(); i++) {
+                FreeRect rect = free.get(i);
+                for (int orientation = 0; orientation < (panel.rotatable() ? 2 : 1); orientation++) {
+                    int l = orientation == 0 ? inflatedLength : inflatedWidth;
+                    int w = orientation == 0 ? inflatedWidth : inflatedLength;
+                    if (l > rect.length || w > rect.width) {
+                        continue;
+                    }
+                    int leftoverL = rect.length - l;
+                    int leftoverW = rect.width - w;
+                    int shortSide = Math.min(leftoverL, leftoverW);
+                    int longSide = Math.max(leftoverL, leftoverW);
+                    if (shortSide < bestShortSide || (shortSide == bestShortSide && longSide < bestLongSide)) {
+                        bestBoard = board;
+                        bestRect = i;
+                        bestRotated = orientation == 1;
+                        bestShortSide = shortSide;
+                        bestLongSide = longSide;
+                    }
+                }
+            }
+        }
+
+        if (bestBoard == null) {
+            return false;
+        }
+        bestBoard.place(bestRect, panel, bestRotated, kerf);
+        return true;
+    }
+
+    record Packing(List<Board> boards, List<Panel> unplaced) {
+
+        long usedArea() {
+            long used = 0;
+            for (Board board : boards) {
+                used += board.usedArea;
+            }
+            return used;
+        }
+    }
+
+    record Placement(Panel panel, int x, int y, int length, int width, boolean rotated) {}
+
+    static final class Board {
+        private final List<FreeRect> free = new ArrayList<>();
+        private final List<Placement> placements = new ArrayList<>();
+        private long usedArea;
+
+        private Board() {
+        }
+
+        Board(int length, int width) {
+            free.add(new FreeRect(0, 0, length, width));
+        }
+
+        List<Placement> placements() {
+            return placements;
+        }
+
+        long usedArea() {
+            return usedArea;
+        }
+
+        private void place(int rectIndex, Panel panel, boolean rotated, int kerf) {
+            FreeRect rect = free.get(rectIndex);
+            int length = rotated ? panel.width() : panel.length();
+            int width = rotated ? panel.length() : panel.width();
+            int cutLength = length + kerf;
+            int cutWidth = width + kerf;
+
+            placements.add(new Placement(panel, rect.x, rect.y, length, width, rotated));
+            usedArea += panel.area();
+
+            int leftoverL = rect.length - cutLength;
+            int leftoverW = rect.width - cutWidth;
+
+            // Shorter leftover axis split: keep the larger offcut as whole as possible
+            FreeRect beside;
+            FreeRect above;
+            if (leftoverL < leftoverW) {
+                beside = new FreeRect(rect.x + cutLength, rect.y, leftoverL, cutWidth);
+                above = new FreeRect(rect.x, rect.y + cutWidth, rect.length, leftoverW);
+            } else {
+                beside = new FreeRect(rect.x + cutLength, rect.y, leftoverL, rect.width);
+                above = new FreeRect(rect.x, rect.y + cutWidth, cutLength, leftoverW);
+            }
+
+            free.remove(rectIndex);
+            if (beside.length > kerf && beside.width > kerf) {
+                free.add(beside);
+            }
+            if (above.length > kerf && above.width > kerf) {
+                free.add(above);
+            }
+        }
+    }
+
+    private record FreeRect(int x, int y, int length, int width) {}
+}
@@ -0,0 +1,151 @@
+package uk.jsikora.woodworksapi.workService.nesting;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import uk.jsikora.woodworksapi.workService.CabinetGroup;
+import uk.jsikora.woodworksapi.workService.Item;
+import uk.jsikora.woodworksapi.workService.generators.ItemType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the last board layout of every draft and, when the draft changes, only re-places the
+ * panels that differ: unchanged panels stay where they were, removed panels free their spot
+ * and new panels are packed into the gaps before opening new boards. A full solve is done
+ * only when the patched layout's yield drops too far below the previous one.
+ */
+@Slf4j
+@Service
+public class IncrementalNestingService {
+
+    private final NestingService nestingService;
+    private final NestingProperties properties;
+    private final Cache<UUID, Map<NestingService.MaterialKey, GuillotinePacker.Packing>> layouts;
+
+    public IncrementalNestingService(NestingService nestingService, NestingProperties properties) {
+        this.nestingService = nestingService;
+        this.properties = properties;
+        this.layouts = Caffeine.newBuilder()
+                               .maximumSize(properties.getLayoutCacheSize())
+                               .expireAfterAccess(Duration.ofHours(12))
+                               .build();
+    }
+
+    public List<NestingResult> nest(UUID draftUuid, List<CabinetGroup> cabinetGroups) {
+        Map<NestingService.MaterialKey, List<Panel>> panelsByMaterial = nestingService.expandPanels(cabinetGroups);
+        GuillotinePacker packer = nestingService.packer();
+
+        // Packed outside the cache so no lock is held meanwhile. The result is only stored if the
+        // layout it started from is still the cached one: a layout evicted or replaced in the
+        // meantime is not brought back, the caller still gets its result
+        Map<NestingService.MaterialKey, GuillotinePacker.Packing> previous = layouts.getIfPresent(draftUuid);
+        Map<NestingService.MaterialKey, GuillotinePacker.Packing> packings = relayout(packer, previous, panelsByMaterial);
+        if (previous == null) {
+            layouts.asMap()
+                   .putIfAbsent(draftUuid, packings);
+        } else {
+            layouts.asMap()
+                   .replace(draftUuid, previous, packings);
+        }
+
+        List<NestingResult> results = new ArrayList<>(packings.size());
+        packings.forEach((key, packing) -> results.add(nestingService.toResult(key, packing)));
+        return results;
+    }
+
+    public boolean hasLayout(UUID draftUuid) {
+        return layouts.getIfPresent(draftUuid) != null;
+    }
+
+    public void evict(UUID draftUuid) {
+        layouts.invalidate(draftUuid);
+    }
+
+    private Map<NestingService.MaterialKey, GuillotinePacker.Packing> relayout(GuillotinePacker packer,
+                                                                             Map<NestingService.MaterialKey, GuillotinePacker.Packing> previous,
+                                                                             Map<NestingService.MaterialKey, List<Panel>> panelsByMaterial) {
+        Map<NestingService.MaterialKey, GuillotinePacker.Packing> next = new LinkedHashMap<>();
+        panelsByMaterial.forEach((key, panels) -> {
+            GuillotinePacker.Packing last = previous != null ? previous.get(key) : null;
+            next.put(key, last != null ? renest(packer, last, panels) : fullSolve(packer, panels));
+        });
+        return next;
+    }
+
+    private GuillotinePacker.Packing renest(GuillotinePacker packer, GuillotinePacker.Packing previous, List<Panel> panels) {
+        Map<PanelKey, Integer> demand = new HashMap<>();
+        for (Panel panel : panels) {
+            demand.merge(PanelKey.of(panel), 1, Integer::sum);
+        }
+
+        List<GuillotinePacker.Board> boards = new ArrayList<>(previous.boards()
+                                                                      .size());
+        for (GuillotinePacker.Board board : previous.boards()) {
+            GuillotinePacker.Board kept = packer.retain(board, placement -> take(demand, PanelKey.of(placement.panel())));
+            if (!kept.placements()
+                     .isEmpty()) {
+                boards.add(kept);
+            }
+        }
+
+        List<Panel> changed = new ArrayList<>();
+        for (Panel panel : panels) {
+            if (take(demand, PanelKey.of(panel))) {
+                changed.add(panel);
+            }
+        }
+        changed.sort(NestingService.LARGEST_FIRST);
+        GuillotinePacker.Packing patched = packer.pack(boards, changed);
+
+        double previousYield = yieldPercent(packer, previous);
+        double patchedYield = yieldPercent(packer, patched);
+        if (previousYield - patchedYield > properties.getIncrementalYieldDrop()) {
+            log.debug("Incremental nesting yield dropped from {}% to {}%, re-solving", previousYield, patchedYield);
+            return fullSolve(packer, panels);
+        }
+        log.debug("Re-placed {} of {} panels incrementally", changed.size(), panels.size());
+        return patched;
+    }
+
+    private static GuillotinePacker.Packing fullSolve(GuillotinePacker packer, List<Panel> panels) {
+        List<Panel> order = new ArrayList<>(panels);
+        order.sort(NestingService.LARGEST_FIRST);
+        return packer.pack(order);
+    }
+
+    private static boolean take(Map<PanelKey, Integer> demand, PanelKey key) {
+        Integer remaining = demand.get(key);
+        if (remaining == null) {
+            return false;
+        }
+        if (remaining == 1) {
+            demand.remove(key);
+        } else {
+            demand.put(key, remaining - 1);
+        }
+        return true;
+    }
+
+    private static double yieldPercent(GuillotinePacker packer, GuillotinePacker.Packing packing) {
+        int boards = packing.boards()
+                            .size();
+        return boards == 0 ? 0 : packing.usedArea() * 100.0 / (boards * packer.usableArea());
+    }
+
+    // Identifies a physical piece regardless of the item's aggregated count
+    private record PanelKey(String name, ItemType type, int length, int width) {
+
+        static PanelKey of(Panel panel) {
+            Item item = panel.item();
+            return new PanelKey(item.name(), item.type(), panel.length(), panel.width());
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package uk.jsikora.woodworksapi.workService.nesting;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import uk.jsikora.woodworksapi.workService.CabinetGroup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Multi-start nesting search. Every worker of a dedicated fork/join pool repeatedly packs the
+ * panels in a different order - first the deterministic heuristic orders, then randomly
+ * perturbed area orders - until the time budget runs out or every material group reaches
+ * its area lower bound. The best packing per group wins.
+ */
+@Slf4j
+@Component
+public class NestingOptimizer {
+
+    private static final List<Comparator<Panel>> SEED_ORDERS = List.of(
+            NestingService.LARGEST_FIRST,
+            Comparator.comparingInt((Panel p) -> Math.max(p.length(), p.width()))
+                      .reversed(),
+            Comparator.comparingInt(Panel::length)
+                      .reversed(),
+            Comparator.comparingInt(Panel::width)
+                      .reversed(),
+            Comparator.comparingInt((Panel p) -> p.length() + p.width())
+                      .reversed());
+
+    private final NestingService nestingService;
+    private final NestingProperties properties;
+    private final ForkJoinPool pool;
+
+    public NestingOptimizer(NestingService nestingService, NestingProperties properties) {
+        this.nestingService = nestingService;
+        this.properties = properties;
+        int parallelism = properties.getOptimiserParallelism() > 0
+                ? properties.getOptimiserParallelism()
+                : Runtime.getRuntime()
+                         .availableProcessors();
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public List<NestingResult> optimise(List<CabinetGroup> cabinetGroups, Duration timeBudget) {
+        long budgetMs = timeBudget == null || timeBudget.isZero() || timeBudget.isNegative()
+                ? properties.getDefaultTimeBudgetMs()
+                : Math.min(timeBudget.toMillis(), properties.getMaxTimeBudgetMs());
+        long deadline = System.nanoTime() + budgetMs * 1_000_000;
+
+        Map<NestingService.MaterialKey, List<Panel>> panelsByMaterial = nestingService.expandPanels(cabinetGroups);
+        List<NestingService.MaterialKey> keys = new ArrayList<>(panelsByMaterial.keySet());
+        List<List<Panel>> panels = new ArrayList<>(panelsByMaterial.values());
+        GuillotinePacker packer = nestingService.packer();
+
+        int[] lowerBounds = new int[panels.size()];
+        for (int g = 0; g < panels.size(); g++) {
+            lowerBounds[g] = lowerBound(packer, panels.get(g));
+        }
+
+        int workers = pool.getParallelism();
+        List<ForkJoinTask<GuillotinePacker.Packing[]>> tasks = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            tasks.add(pool.submit(() -> search(packer, panels, lowerBounds, worker, workers, deadline)));
+        }
+
+        GuillotinePacker.Packing[] best = new GuillotinePacker.Packing[panels.size()];
+        for (ForkJoinTask<GuillotinePacker.Packing[]> task : tasks) {
+            GuillotinePacker.Packing[] candidates = task.join();
+            for (int g = 0; g < best.length; g++) {
+                if (isBetter(candidates[g], best[g])) {
+                    best[g] = candidates[g];
+                }
+            }
+        }
+
+        List<NestingResult> results = new ArrayList<>(best.length);
+        for (int g = 0; g < best.length; g++) {
+            results.add(nestingService.toResult(keys.get(g), best[g]));
+        }
+        return results;
+    }
+
+    private GuillotinePacker.Packing[] search(GuillotinePacker packer,
+                                              List<List<Panel>> panels,
+                                              int[] lowerBounds,
+                                              int worker,
+                                              int workers,
+                                              long deadline) {
+        SplittableRandom random = new SplittableRandom(0x9E3779B97F4A7C15L * (worker + 1));
+        GuillotinePacker.Packing[] best = new GuillotinePacker.Packing[panels.size()];
+        int attempt = worker;
+
+        boolean improvable;
+        do {
+            improvable = false;
+            for (int g = 0; g < panels.size(); g++) {
+                if (best[g] != null && best[g].boards()
+                                              .size() <= lowerBounds[g]) {
+                    continue;
+                }
+                GuillotinePacker.Packing packing = packer.pack(ordering(panels.get(g), attempt, random));
+                if (isBetter(packing, best[g])) {
+                    best[g] = packing;
+                }
+                improvable |= best[g].boards()
+                                     .size() > lowerBounds[g];
+            }
+            attempt += workers;
+        } while (improvable && System.nanoTime() < deadline);
+
+        log.debug("Nesting worker {} finished after {} attempts", worker, (attempt - worker) / workers);
+        return best;
+    }
+
+    private static List<Panel> ordering(List<Panel> panels, int attempt, SplittableRandom random) {
+        List<Panel> order = new ArrayList<>(panels);
+        if (attempt < SEED_ORDERS.size()) {
+            order.sort(SEED_ORDERS.get(attempt));
+            return order;
+        }
+
+        // Largest-first with every area scaled by a random factor in [0.7, 1.3)
+        double[] keys = new double[order.size()];
+        Integer[] indexes = new Integer[order.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = order.get(i)
+                           .area() * (0.7 + 0.6 * random.nextDouble());
+            indexes[i] = i;
+        }
+        Arrays.sort(indexes, (a, b) -> Double.compare(keys[b], keys[a]));
+        List<Panel> shuffled = new ArrayList<>(order.size());
+        for (Integer index : indexes) {
+            shuffled.add(order.get(index));
+        }
+        return shuffled;
+    }
+
+    /**
+     * Fewer boards wins; with the same board count the packing whose least used board is the
+     * emptiest is preferred, as its waste is concentrated in one reusable offcut.
+     */
+    static boolean isBetter(GuillotinePacker.Packing candidate, GuillotinePacker.Packing best) {
+        if (best == null) {
+            return true;
+        }
+        int boards = candidate.boards()
+                              .size();
+        int bestBoards = best.boards()
+                             .size();
+        if (boards != bestBoards) {
+            return boards < bestBoards;
+        }
+        return boards > 0 && emptiestBoardArea(candidate) < emptiestBoardArea(best);
+    }
+
+    private static long emptiestBoardArea(GuillotinePacker.Packing packing) {
+        long smallest = Long.MAX_VALUE;
+        for (GuillotinePacker.Board board : packing.boards()) {
+            smallest = Math.min(smallest, board.usedArea());
+        }
+        return smallest;
+    }
+
+    private static int lowerBound(GuillotinePacker packer, List<Panel> panels) {
+        long area = 0;
+        for (Panel panel : panels) {
+            if (packer.fits(panel)) {
+                area += panel.area();
+            }
+        }
+        return (int) Math.ceil((double) area / packer.usableArea());
+    }
+}
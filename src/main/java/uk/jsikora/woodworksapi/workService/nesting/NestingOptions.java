@@ -0,0 +1,25 @@
+package uk.jsikora.woodworksapi.workService.nesting;
+
+import java.time.Duration;
+
+/**
+ * @param optimise   run the parallel multi-start search instead of a single greedy pass
+ * @param timeBudget wall-clock limit of the search, capped by {@code woodworks.nesting.max-time-budget-ms}
+ */
+public record NestingOptions(boolean optimise, Duration timeBudget) {
+
+    public static final NestingOptions GREEDY = new NestingOptions(false, Duration.ZERO);
+
+    public static NestingOptions optimised(Duration timeBudget) {
+        return new NestingOptions(true, timeBudget);
+    }
+
+    /**
+     * Options of the {@code optimise} and {@code timeBudgetMs} request parameters.
+     */
+    public static NestingOptions of(boolean optimise, Long timeBudgetMs) {
+        return optimise
+                ? optimised(timeBudgetMs != null ? Duration.ofMillis(timeBudgetMs) : null)
+                : GREEDY;
+    }
+}
@@ -0,0 +1,48 @@
+package uk.jsikora.woodworksapi.workService.nesting;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import uk.jsikora.woodworksapi.workService.generators.ItemType;
+
+import java.util.List;
+
+@Getter
+@Configuration
+public class NestingProperties {
+
+    // Board length runs along the grain of the decor
+    @Value("${woodworks.nesting.board-length:2800}")
+    private int boardLength;
+
+    @Value("${woodworks.nesting.board-width:2070}")
+    private int boardWidth;
+
+    @Value("${woodworks.nesting.kerf:4}")
+    private int kerf;
+
+    @Value("${woodworks.nesting.edge-trim:10}")
+    private int edgeTrim;
+
+    // Panels of these types keep their height along the board grain and are never rotated
+    @Value("${woodworks.nesting.grain-locked-types:FRONT}")
+    private List<ItemType> grainLockedTypes;
+
+    // Upper bound for the caller-supplied time budget of the optimised search
+    @Value("${woodworks.nesting.max-time-budget-ms:5000}")
+    private long maxTimeBudgetMs;
+
+    @Value("${woodworks.nesting.default-time-budget-ms:1000}")
+    private long defaultTimeBudgetMs;
+
+    // 0 means one worker per available core
+    @Value("${woodworks.nesting.optimiser-parallelism:0}")
+    private int optimiserParallelism;
+
+    // Incremental re-nesting falls back to a full solve once yield drops by more percentage points
+    @Value("${woodworks.nesting.incremental-yield-drop:5.0}")
+    private double incrementalYieldDrop;
+
+    @Value("${woodworks.nesting.layout-cache-size:1000}")
+    private long layoutCacheSize;
+}
@@ -0,0 +1,24 @@
+package uk.jsikora.woodworksapi.workService.nesting;
+
+import uk.jsikora.woodworksapi.workService.Item;
+import uk.jsikora.woodworksapi.workService.MaterialType;
+
+import java.util.List;
+
+/**
+ * Board layouts for one material and thickness.
+ *
+ * @param unplaced panels larger than the usable board area
+ */
+public record NestingResult(MaterialType material,
+                            int thickness,
+                            int boardLength,
+                            int boardWidth,
+                            List<BoardLayout> boards,
+                            double yieldPercent,
+                            List<Item> unplaced) {
+
+    public int boardCount() {
+        return boards.size();
+    }
+}
@@ -0,0 +1,119 @@
+package uk.jsikora.woodworksapi.workService.nesting;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import uk.jsikora.woodworksapi.workService.CabinetGroup;
+import uk.jsikora.woodworksapi.workService.Item;
+import uk.jsikora.woodworksapi.workService.MaterialType;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NestingService {
+
+    static final Comparator<Panel> LARGEST_FIRST = Comparator.comparingLong(Panel::area)
+                                                             .thenComparingInt(p -> Math.max(p.length(), p.width()))
+                                                             .reversed();
+
+    private final NestingProperties properties;
+
+    public List<NestingResult> nest(List<CabinetGroup> cabinetGroups) {
+        long start = System.nanoTime();
+        GuillotinePacker packer = packer();
+
+        List<NestingResult> results = new ArrayList<>();
+        expandPanels(cabinetGroups).forEach((key, panels) -> {
+            panels.sort(LARGEST_FIRST);
+            results.add(toResult(key, packer.pack(panels)));
+        });
+
+        log.debug("Nested {} material groups in {} ms", results.size(), (System.nanoTime() - start) / 1_000_000);
+        return results;
+    }
+
+    GuillotinePacker packer() {
+        int trim = 2 * properties.getEdgeTrim();
+        return new GuillotinePacker(properties.getBoardLength() - trim, properties.getBoardWidth() - trim, properties.getKerf());
+    }
+
+    /**
+     * Multiplies every item by its own count and its group's cabinet count and splits the
+     * resulting panels by material and thickness, keeping first-seen order.
+     */
+    Map<MaterialKey, List<Panel>> expandPanels(List<CabinetGroup> cabinetGroups) {
+        Map<MaterialKey, List<Panel>> panelsByMaterial = new LinkedHashMap<>();
+        for (CabinetGroup group : cabinetGroups) {
+            for (Item item : group.getItems()) {
+                int pieces = item.count() * Math.max(group.getCabinetCount(), 0);
+                if (pieces <= 0) {
+                    continue;
+                }
+                Panel panel = toPanel(item);
+                List<Panel> panels = panelsByMaterial.computeIfAbsent(new MaterialKey(item.material(), item.thickness()), k -> new ArrayList<>());
+                for (int i = 0; i < pieces; i++) {
+                    panels.add(panel);
+                }
+            }
+        }
+        return panelsByMaterial;
+    }
+
+    Panel toPanel(Item item) {
+        // Height runs along the grain, so it is laid along the board length
+        boolean grainLocked = properties.getGrainLockedTypes()
+                                        .contains(item.type());
+        return new Panel(item, item.height(), item.width(), !grainLocked);
+    }
+
+    NestingResult toResult(MaterialKey key, GuillotinePacker.Packing packing) {
+        int trim = properties.getEdgeTrim();
+        long boardArea = (long) properties.getBoardLength() * properties.getBoardWidth();
+
+        List<BoardLayout> boards = new ArrayList<>(packing.boards()
+                                                          .size());
+        for (GuillotinePacker.Board board : packing.boards()) {
+            List<PlacedPanel> placed = new ArrayList<>(board.placements()
+                                                            .size());
+            for (GuillotinePacker.Placement p : board.placements()) {
+                Item item = p.panel()
+                             .item();
+                placed.add(new PlacedPanel(item.name(), item.type(), p.x() + trim, p.y() + trim, p.length(), p.width(), p.rotated()));
+            }
+            boards.add(new BoardLayout(boards.size() + 1, placed, percent(board.usedArea(), boardArea)));
+        }
+
+        List<Item> unplaced = packing.unplaced()
+                                     .stream()
+                                     .map(Panel::item)
+                                     .distinct()
+                                     .toList();
+        if (!unplaced.isEmpty()) {
+            log.warn("{} panel(s) of {} {}mm exceed the usable board area", packing.unplaced()
+                                                                                  .size(), key.material(), key.thickness());
+        }
+
+        return new NestingResult(key.material(),
+                                 key.thickness(),
+                                 properties.getBoardLength(),
+                                 properties.getBoardWidth(),
+                                 boards,
+                                 percent(packing.usedArea(), boardArea * boards.size()),
+                                 unplaced);
+    }
+
+    private static double percent(long used, long total) {
+        if (total == 0) {
+            return 0;
+        }
+        return Math.round(used * 10000.0 / total) / 100.0;
+    }
+
+    record MaterialKey(MaterialType material, int thickness) {}
+}
@@ -0,0 +1,18 @@
+package uk.jsikora.woodworksapi.workService.nesting;
+
+import uk.jsikora.woodworksapi.workService.Item;
+
+/**
+ * Single physical piece to be cut, expanded from an aggregated {@link Item}.
+ *
+ * @param item      source item (count is ignored, one panel per piece)
+ * @param length    size along the board grain
+ * @param width     size across the board grain
+ * @param rotatable whether the panel may be turned by 90 degrees
+ */
+record Panel(Item item, int length, int width, boolean rotatable) {
+
+    long area() {
+        return (long) length * width;
+    }
+}
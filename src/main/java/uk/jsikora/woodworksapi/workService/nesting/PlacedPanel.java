@@ -0,0 +1,9 @@
+package uk.jsikora.woodworksapi.workService.nesting;
+
+import uk.jsikora.woodworksapi.workService.generators.ItemType;
+
+/**
+ * Panel position on a board, in millimetres from the board corner (edge trim included).
+ * {@code length} is measured along the board grain, {@code width} across it.
+ */
+public record PlacedPanel(String name, ItemType type, int x, int y, int length, int width, boolean rotated) {}
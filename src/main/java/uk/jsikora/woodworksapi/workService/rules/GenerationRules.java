@@ -0,0 +1,156 @@
+package uk.jsikora.woodworksapi.workService.rules;
+
+import uk.jsikora.woodworksapi.workService.DrawerSystem;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Generation rules compiled into flat tables: global clearances are plain fields and every
+ * drawer system value is an {@code int[]} indexed by {@link DrawerSystem} ordinal + 1, slot 0
+ * holding the default profile, with inheritance from the default resolved at compile time.
+ * Immutable, so a generator can read one instance for a whole cabinet.
+ */
+public final class GenerationRules {
+
+    private static final DrawerSystem[] DRAWER_SYSTEMS = DrawerSystem.values();
+
+    private final String version;
+
+    private final int frontClearance;
+    private final int topBeamHeight;
+    private final int drawerGap;
+    private final int ovenDrawerHeightPercent;
+    private final int ovenFillerHeight;
+    private final int ovenBottomClearance;
+
+    private final int[] slideAllowance;
+    private final int[] backWidthReduction;
+    private final int[] backThickness;
+    private final int[] bottomThickness;
+    private final int[] boxHeightClearance;
+    private final int[] minBoxHeight;
+
+    /**
+     * @param version identifies the definition, see {@link #version()}
+     * @throws IllegalArgumentException if a value is missing or out of range
+     */
+    public static GenerationRules compile(GenerationRulesDefinition definition, String version) {
+        return new GenerationRules(definition, version);
+    }
+
+    private GenerationRules(GenerationRulesDefinition definition, String version) {
+        this.version = version;
+        frontClearance = require(definition.frontClearance(), "frontClearance", 0);
+        topBeamHeight = require(definition.topBeamHeight(), "topBeamHeight", 1);
+        drawerGap = require(definition.drawerGap(), "drawerGap", 0);
+
+        GenerationRulesDefinition.Oven oven = definition.oven();
+        if (oven == null) {
+            throw new IllegalArgumentException("Missing generation rule: oven");
+        }
+        ovenDrawerHeightPercent = require(oven.drawerHeightPercent(), "oven.drawerHeightPercent", 1);
+        ovenFillerHeight = require(oven.fillerHeight(), "oven.fillerHeight", 1);
+        ovenBottomClearance = require(oven.bottomClearance(), "oven.bottomClearance", 0);
+
+        slideAllowance = table(definition, GenerationRulesDefinition.DrawerSystemProfile::slideAllowance, "slideAllowance", 0);
+        backWidthReduction = table(definition, GenerationRulesDefinition.DrawerSystemProfile::backWidthReduction, "backWidthReduction", 0);
+        backThickness = table(definition, GenerationRulesDefinition.DrawerSystemProfile::backThickness, "backThickness", 1);
+        bottomThickness = table(definition, GenerationRulesDefinition.DrawerSystemProfile::bottomThickness, "bottomThickness", 1);
+        boxHeightClearance = table(definition, GenerationRulesDefinition.DrawerSystemProfile::boxHeightClearance, "boxHeightClearance", 0);
+        minBoxHeight = table(definition, GenerationRulesDefinition.DrawerSystemProfile::minBoxHeight, "minBoxHeight", 1);
+    }
+
+    /**
+     * Equal for equal definitions, also across restarts. Caches of generator output and
+     * ETags include it, so output of replaced rules is never served for the new ones.
+     */
+    public String version() {
+        return version;
+    }
+
+    public int frontClearance() {
+        return frontClearance;
+    }
+
+    public int topBeamHeight() {
+        return topBeamHeight;
+    }
+
+    public int drawerGap() {
+        return drawerGap;
+    }
+
+    public int ovenDrawerHeight(int cabinetHeight) {
+        return cabinetHeight * ovenDrawerHeightPercent / 100;
+    }
+
+    public int ovenFillerHeight() {
+        return ovenFillerHeight;
+    }
+
+    public int ovenBottomClearance() {
+        return ovenBottomClearance;
+    }
+
+    public int slideAllowance(DrawerSystem system) {
+        return slideAllowance[slot(system)];
+    }
+
+    public int backWidthReduction(DrawerSystem system) {
+        return backWidthReduction[slot(system)];
+    }
+
+    public int backThickness(DrawerSystem system) {
+        return backThickness[slot(system)];
+    }
+
+    public int bottomThickness(DrawerSystem system) {
+        return bottomThickness[slot(system)];
+    }
+
+    public int boxHeight(DrawerSystem system, int frontHeight) {
+        int slot = slot(system);
+        return Math.max(minBoxHeight[slot], frontHeight - boxHeightClearance[slot]);
+    }
+
+    private static int slot(DrawerSystem system) {
+        return system != null ? system.ordinal() + 1 : 0;
+    }
+
+    private static int[] table(GenerationRulesDefinition definition,
+                               Function<GenerationRulesDefinition.DrawerSystemProfile, Integer> value,
+                               String name,
+                               int min) {
+        GenerationRulesDefinition.DrawerSystemProfile defaults = definition.defaultDrawerSystem();
+        if (defaults == null) {
+            throw new IllegalArgumentException("Missing generation rule: defaultDrawerSystem");
+        }
+        int[] table = new int[DRAWER_SYSTEMS.length + 1];
+        table[0] = require(value.apply(defaults), "defaultDrawerSystem." + name, min);
+        for (DrawerSystem system : DRAWER_SYSTEMS) {
+            GenerationRulesDefinition.DrawerSystemProfile profile = definition.drawerSystems() != null
+                    ? definition.drawerSystems().get(system)
+                    : null;
+            Integer own = profile != null ? value.apply(profile) : null;
+            table[slot(system)] = own != null ? require(own, system + "." + name, min) : table[0];
+        }
+        return table;
+    }
+
+    private static int require(Integer value, String name, int min) {
+        if (value == null) {
+            throw new IllegalArgumentException("Missing generation rule: " + name);
+        }
+        if (value < min) {
+            throw new IllegalArgumentException("Generation rule " + name + " must be at least " + min + ", got " + value);
+        }
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "GenerationRules[version=" + version + ", frontClearance=" + frontClearance + ", topBeamHeight=" + topBeamHeight + ", drawerGap=" + drawerGap
+                + ", slideAllowance=" + Arrays.toString(slideAllowance) + "]";
+    }
+}
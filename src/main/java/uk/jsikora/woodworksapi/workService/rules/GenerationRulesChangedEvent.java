@@ -0,0 +1,8 @@
+package uk.jsikora.woodworksapi.workService.rules;
+
+/**
+ * Published after reloaded rules replaced the previous ones. Anything caching generator
+ * output has to drop it.
+ */
+public record GenerationRulesChangedEvent(GenerationRules rules) {
+}
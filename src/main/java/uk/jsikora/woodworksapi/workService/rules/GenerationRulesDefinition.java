@@ -0,0 +1,40 @@
+package uk.jsikora.woodworksapi.workService.rules;
+
+import uk.jsikora.woodworksapi.workService.DrawerSystem;
+
+import java.util.Map;
+
+/**
+ * Generation rules as written in the rules file, all sizes in millimetres. A drawer system
+ * profile only needs the values that differ from {@code defaultDrawerSystem}, which also
+ * applies to cabinets without a drawer system (oven drawers).
+ */
+public record GenerationRulesDefinition(Integer frontClearance,
+                                        Integer topBeamHeight,
+                                        Integer drawerGap,
+                                        Oven oven,
+                                        DrawerSystemProfile defaultDrawerSystem,
+                                        Map<DrawerSystem, DrawerSystemProfile> drawerSystems) {
+
+    /**
+     * @param drawerHeightPercent height of the drawer under the oven as a share of the cabinet height
+     * @param fillerHeight        filler panel under the oven when there is no drawer
+     * @param bottomClearance     drawer bottom is this much shorter than the cabinet depth
+     */
+    public record Oven(Integer drawerHeightPercent, Integer fillerHeight, Integer bottomClearance) {
+    }
+
+    /**
+     * @param slideAllowance     inner cabinet width minus drawer box width, both runners together
+     * @param backWidthReduction drawer box width minus width of the wooden back
+     * @param boxHeightClearance drawer front height minus drawer back height
+     * @param minBoxHeight       lowest drawer back the runners accept
+     */
+    public record DrawerSystemProfile(Integer slideAllowance,
+                                      Integer backWidthReduction,
+                                      Integer backThickness,
+                                      Integer bottomThickness,
+                                      Integer boxHeightClearance,
+                                      Integer minBoxHeight) {
+    }
+}
@@ -0,0 +1,112 @@
+package uk.jsikora.woodworksapi.workService.rules;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Current generation rules. They are read from {@code woodworks.generation.rules.location}
+ * at startup, where invalid rules fail the start. Afterwards the file's modification time is
+ * polled; a changed file is compiled and swapped in atomically and a
+ * {@link GenerationRulesChangedEvent} is published, while a file that does not compile is
+ * logged and the previous rules stay in force. The rules' version is a hash of the definition
+ * written with sorted map keys, so reformatting the file does not change it.
+ */
+@Slf4j
+@Component
+public class GenerationRulesRegistry {
+
+    private final ObjectReader reader;
+    private final ObjectWriter canonicalWriter;
+    private final Resource resource;
+    private final ApplicationEventPublisher events;
+
+    private volatile GenerationRules current;
+    private GenerationRulesDefinition currentDefinition;
+    private long lastModified;
+
+    public GenerationRulesRegistry(ObjectMapper objectMapper,
+                                   ResourceLoader resourceLoader,
+                                   @Value("${woodworks.generation.rules.location:classpath:generation-rules.json}") String location,
+                                   ApplicationEventPublisher events) {
+        this.reader = objectMapper.readerFor(GenerationRulesDefinition.class)
+                                  .with(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.canonicalWriter = objectMapper.writer()
+                                           .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+        this.resource = resourceLoader.getResource(location);
+        this.events = events;
+
+        this.lastModified = lastModified();
+        try {
+            this.currentDefinition = read();
+            this.current = compile(currentDefinition);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read generation rules from " + location, e);
+        }
+        log.info("Loaded generation rules from {}: {}", location, current);
+    }
+
+    public GenerationRules current() {
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${woodworks.generation.rules.reload-interval-ms:10000}")
+    public synchronized void reloadIfModified() {
+        long modified = lastModified();
+        if (modified == lastModified) {
+            return;
+        }
+        lastModified = modified;
+
+        GenerationRulesDefinition definition;
+        GenerationRules rules;
+        try {
+            definition = read();
+            rules = compile(definition);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring invalid generation rules in {}, keeping the previous ones", resource, e);
+            return;
+        }
+        if (definition.equals(currentDefinition)) {
+            return;
+        }
+
+        currentDefinition = definition;
+        current = rules;
+        log.info("Reloaded generation rules from {}: {}", resource, rules);
+        events.publishEvent(new GenerationRulesChangedEvent(rules));
+    }
+
+    private GenerationRules compile(GenerationRulesDefinition definition) throws IOException {
+        return GenerationRules.compile(definition, DigestUtils.md5DigestAsHex(canonicalWriter.writeValueAsBytes(definition)));
+    }
+
+    private GenerationRulesDefinition read() throws IOException {
+        try (InputStream in = resource.getInputStream()) {
+            return reader.readValue(in);
+        }
+    }
+
+    // 0 for resources without a modification time (e.g. inside a jar), which are never reloaded
+    private long lastModified() {
+        try {
+            return resource.isFile() ? resource.lastModified() : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package uk.jsikora.woodworksapi.workService.takeoff;
+
+import uk.jsikora.woodworksapi.workService.MaterialType;
+import uk.jsikora.woodworksapi.workService.generators.ItemType;
+
+import java.util.List;
+
+/**
+ * Material quantities and estimated cost of a kitchen (or of a whole batch), with every item
+ * multiplied out by its count and the count of its cabinet.
+ */
+public record KitchenTakeoff(List<MaterialTotal> materials,
+                             List<EdgeBandingTotal> edgeBanding,
+                             int hdfSheets,
+                             double totalCost,
+                             String currency) {
+
+    /**
+     * @param colour decor from the cabinet's colour config for the item's part, null if not given
+     * @param sheets boards of the nesting size the area needs, not counting offcuts
+     */
+    public record MaterialTotal(MaterialType material,
+                                int thickness,
+                                String colour,
+                                double areaSquareMetres,
+                                int sheets,
+                                double cost) {
+    }
+
+    public record EdgeBandingTotal(ItemType type, double metres, double cost) {
+    }
+}
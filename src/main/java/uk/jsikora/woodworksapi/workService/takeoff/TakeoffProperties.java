@@ -0,0 +1,32 @@
+package uk.jsikora.woodworksapi.workService.takeoff;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Price table of the takeoff. Boards are priced per square metre, HDF per sheet of the
+ * nesting board size, edge banding per metre.
+ */
+@Getter
+@Configuration
+public class TakeoffProperties {
+
+    @Value("${woodworks.takeoff.currency:PLN}")
+    private String currency;
+
+    @Value("${woodworks.takeoff.price.plyta-meblowa-m2:45.0}")
+    private double plytaMeblowaPerSquareMetre;
+
+    @Value("${woodworks.takeoff.price.mdf-m2:70.0}")
+    private double mdfPerSquareMetre;
+
+    @Value("${woodworks.takeoff.price.blat-m2:180.0}")
+    private double blatPerSquareMetre;
+
+    @Value("${woodworks.takeoff.price.hdf-sheet:60.0}")
+    private double hdfPerSheet;
+
+    @Value("${woodworks.takeoff.price.edge-banding-m:2.5}")
+    private double edgeBandingPerMetre;
+}
@@ -0,0 +1,165 @@
+package uk.jsikora.woodworksapi.workService.takeoff;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import uk.jsikora.woodworksapi.workService.CabinetGroup;
+import uk.jsikora.woodworksapi.workService.Item;
+import uk.jsikora.woodworksapi.workService.MaterialType;
+import uk.jsikora.woodworksapi.workService.WorkRequest;
+import uk.jsikora.woodworksapi.workService.generators.ItemType;
+import uk.jsikora.woodworksapi.workService.nesting.NestingProperties;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sums board area per material, thickness and colour and edge banding (as specified by the
+ * generators on every item) per item type, then prices them with {@link TakeoffProperties}.
+ * Quantities are accumulated in millimetres into primitive arrays in one pass over the items;
+ * the handful of distinct materials of a kitchen is found by a linear scan, so no keys or boxed
+ * totals are created per item.
+ */
+@Service
+@RequiredArgsConstructor
+public class TakeoffService {
+
+    private static final ItemType[] ITEM_TYPES = ItemType.values();
+    private static final MaterialType[] MATERIALS = MaterialType.values();
+
+    private final TakeoffProperties properties;
+    private final NestingProperties nestingProperties;
+
+    /**
+     * @param cabinetGroups the groups generated for {@code request}, in the order of its cabins
+     */
+    public KitchenTakeoff takeoff(WorkRequest request, List<CabinetGroup> cabinetGroups) {
+        Accumulator accumulator = new Accumulator();
+        for (int i = 0; i < cabinetGroups.size(); i++) {
+            accumulator.add(request.cabins().get(i), cabinetGroups.get(i));
+        }
+        return accumulator.result();
+    }
+
+    public Accumulator accumulator() {
+        return new Accumulator();
+    }
+
+    /**
+     * Running totals of one takeoff; not thread safe.
+     */
+    public class Accumulator {
+
+        private int[] materials = new int[8];
+        private int[] thicknesses = new int[8];
+        private String[] colours = new String[8];
+        private long[] areas = new long[8]; // mm²
+        private int size;
+        private int last = -1;
+        private final long[] edges = new long[ITEM_TYPES.length]; // mm
+
+        public void add(WorkRequest.CabinRequest cabin, CabinetGroup group) {
+            WorkRequest.ColorConfig colors = cabin.colors();
+            long cabinetCount = group.getCabinetCount();
+            for (Item item : group.getItems()) {
+                long count = item.count() * cabinetCount;
+                int index = index(item.material(), item.thickness(), colour(colors, item.type()));
+                areas[index] += (long) item.width() * item.height() * count;
+                if (item.type() != null) {
+                    edges[item.type().ordinal()] += item.bandedLength() * cabinetCount;
+                }
+            }
+        }
+
+        public KitchenTakeoff result() {
+            double sheetArea = (double) nestingProperties.getBoardLength() * nestingProperties.getBoardWidth();
+            List<KitchenTakeoff.MaterialTotal> materialTotals = new ArrayList<>(size);
+            int hdfSheets = 0;
+            double totalCost = 0;
+            for (int i = 0; i < size; i++) {
+                MaterialType material = materials[i] >= 0 ? MATERIALS[materials[i]] : null;
+                int sheets = (int) Math.ceil(areas[i] / sheetArea);
+                double squareMetres = areas[i] / 1_000_000.0;
+                double cost = material == MaterialType.HDF
+                        ? sheets * properties.getHdfPerSheet()
+                        : squareMetres * pricePerSquareMetre(material);
+                if (material == MaterialType.HDF) {
+                    hdfSheets += sheets;
+                }
+                totalCost += cost;
+                materialTotals.add(new KitchenTakeoff.MaterialTotal(material, thicknesses[i], colours[i], round(squareMetres, 3), sheets, round(cost, 2)));
+            }
+
+            List<KitchenTakeoff.EdgeBandingTotal> edgeTotals = new ArrayList<>();
+            for (ItemType type : ITEM_TYPES) {
+                long millimetres = edges[type.ordinal()];
+                if (millimetres > 0) {
+                    double metres = millimetres / 1000.0;
+                    double cost = metres * properties.getEdgeBandingPerMetre();
+                    totalCost += cost;
+                    edgeTotals.add(new KitchenTakeoff.EdgeBandingTotal(type, round(metres, 3), round(cost, 2)));
+                }
+            }
+            return new KitchenTakeoff(materialTotals, edgeTotals, hdfSheets, round(totalCost, 2), properties.getCurrency());
+        }
+
+        private int index(MaterialType material, int thickness, String colour) {
+            int ordinal = material != null ? material.ordinal() : -1;
+            // Consecutive items of a cabinet mostly share their material
+            if (last >= 0 && matches(last, ordinal, thickness, colour)) {
+                return last;
+            }
+            for (int i = 0; i < size; i++) {
+                if (matches(i, ordinal, thickness, colour)) {
+                    return last = i;
+                }
+            }
+            if (size == materials.length) {
+                materials = Arrays.copyOf(materials, size * 2);
+                thicknesses = Arrays.copyOf(thicknesses, size * 2);
+                colours = Arrays.copyOf(colours, size * 2);
+                areas = Arrays.copyOf(areas, size * 2);
+            }
+            materials[size] = ordinal;
+            thicknesses[size] = thickness;
+            colours[size] = colour;
+            return last = size++;
+        }
+
+        private boolean matches(int index, int material, int thickness, String colour) {
+            return materials[index] == material
+                    && thicknesses[index] == thickness
+                    && Objects.equals(colours[index], colour);
+        }
+    }
+
+    private double pricePerSquareMetre(MaterialType material) {
+        if (material == null) {
+            return 0;
+        }
+        return switch (material) {
+            case PLYTA_MEBLOWA -> properties.getPlytaMeblowaPerSquareMetre();
+            case MDF -> properties.getMdfPerSquareMetre();
+            case BLAT -> properties.getBlatPerSquareMetre();
+            case HDF -> 0;
+        };
+    }
+
+    private static String colour(WorkRequest.ColorConfig colors, ItemType type) {
+        if (colors == null || type == null) {
+            return null;
+        }
+        return switch (type) {
+            case FRONT -> colors.frontColor();
+            case DRAWER_BOX, DRAWER_BOTTOM -> colors.drawerInteriorColor();
+            case HDF -> colors.hdfColor();
+            case CORPUS, PLINTH, SHELF -> colors.corpusColor();
+        };
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+}
@@ -0,0 +1,7 @@
+ALTER TABLE kitchen_draft
+    ADD COLUMN cabinets_data BYTEA,
+    ALTER COLUMN cabinets_json DROP NOT NULL;
+
+-- Payloads are already compressed by the application, skip TOAST compression
+ALTER TABLE kitchen_draft
+    ALTER COLUMN cabinets_data SET STORAGE EXTERNAL;
@@ -0,0 +1,5 @@
+ALTER TABLE kitchen_draft
+    ADD COLUMN cabinets_doc JSONB;
+
+-- Serves the @> containment filter of the draft search; filled in by the application
+CREATE INDEX idx_kitchen_draft_cabinets_doc ON kitchen_draft USING GIN (cabinets_doc jsonb_path_ops);
@@ -0,0 +1,5 @@
+-- Serves the keyset-paginated draft listing: WHERE user_id = ? ORDER BY updated_at DESC, id DESC
+CREATE INDEX idx_kitchen_draft_user_updated ON kitchen_draft (user_id, updated_at DESC, id DESC);
+
+-- Covered by the leading column of the index above
+DROP INDEX idx_kitchen_draft_user_id;
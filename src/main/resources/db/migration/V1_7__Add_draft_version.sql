@@ -0,0 +1,2 @@
+ALTER TABLE kitchen_draft
+    ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
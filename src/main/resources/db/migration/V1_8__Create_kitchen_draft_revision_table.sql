@@ -0,0 +1,16 @@
+CREATE TABLE kitchen_draft_revision
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    draft_id   BIGINT                                  NOT NULL,
+    revision   INTEGER                                 NOT NULL,
+    snapshot   BOOLEAN                                 NOT NULL,
+    name       VARCHAR(255)                            NOT NULL,
+    payload    BYTEA                                   NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE             NOT NULL,
+    CONSTRAINT pk_kitchen_draft_revision PRIMARY KEY (id),
+    CONSTRAINT uq_kitchen_draft_revision UNIQUE (draft_id, revision),
+    CONSTRAINT fk_kitchen_draft_revision_draft FOREIGN KEY (draft_id) REFERENCES kitchen_draft (id) ON DELETE CASCADE
+);
+
+ALTER TABLE kitchen_draft_revision
+    ALTER COLUMN payload SET STORAGE EXTERNAL;
@@ -0,0 +1,48 @@
+package uk.jsikora.woodworksapi.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ETagsTests {
+
+	@Test
+	void ifNoneMatchIsComparedWeakly() {
+		String strong = ETags.of(3);
+		String weak = ETags.weak(ETags.ofHash("request"));
+
+		assertThat(ETags.matches("\"3\"", strong)).isTrue();
+		assertThat(ETags.matches("W/\"3\"", strong)).isTrue();
+		assertThat(ETags.matches("\"1\", \"2\" ,\"3\"", strong)).isTrue();
+		assertThat(ETags.matches("*", strong)).isTrue();
+		assertThat(ETags.matches(weak, weak)).isTrue();
+		assertThat(ETags.matches(weak.substring(2), weak)).isTrue();
+
+		assertThat(ETags.matches("\"4\"", strong)).isFalse();
+		assertThat(ETags.matches("3", strong)).isFalse();
+		assertThat(ETags.matches(null, strong)).isFalse();
+		assertThat(ETags.matches("\"3\"", null)).isFalse();
+	}
+
+	@Test
+	void ifMatchNamesOneVersion() {
+		assertThat(ETags.version("\"42\"")).isEqualTo(42L);
+		assertThat(ETags.version(" \"42\" ")).isEqualTo(42L);
+
+		assertThat(ETags.version(null)).isNull();
+		assertThat(ETags.version("*")).isNull();
+		assertThat(ETags.version("42")).isNull();
+		assertThat(ETags.version("\"\"")).isNull();
+		assertThat(ETags.version("\"abc\"")).isNull();
+		assertThat(ETags.version("W/\"42\"")).isNull();
+		assertThat(ETags.version("\"1\", \"2\"")).isNull();
+	}
+
+	@Test
+	void hashesDependOnEveryPart() {
+		assertThat(ETags.ofHash("a", "b")).isEqualTo(ETags.ofHash("a", "b"))
+										  .isNotEqualTo(ETags.ofHash("a", "c"))
+										  .startsWith("\"")
+										  .endsWith("\"");
+	}
+}
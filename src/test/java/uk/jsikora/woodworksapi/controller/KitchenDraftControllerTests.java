@@ -0,0 +1,166 @@
+package uk.jsikora.woodworksapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import uk.jsikora.woodworksapi.auth.CurrentUserResolver;
+import uk.jsikora.woodworksapi.dto.KitchenDraftDto;
+import uk.jsikora.woodworksapi.service.KitchenDraftService;
+import uk.jsikora.woodworksapi.service.RevisionNotFoundException;
+import uk.jsikora.woodworksapi.workService.WorkResponse;
+import uk.jsikora.woodworksapi.workService.WorkResponseETags;
+import uk.jsikora.woodworksapi.workService.nesting.NestingOptions;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRules;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesRegistry;
+
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class KitchenDraftControllerTests {
+
+	private static final long USER_ID = 1L;
+	private static final UUID DRAFT = UUID.randomUUID();
+	private static final String BODY = "{\"name\":\"Kuchnia\",\"cabinets\":[]}";
+
+	private KitchenDraftService service;
+	private WorkResponseETags eTags;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		service = mock(KitchenDraftService.class);
+		CurrentUserResolver currentUserResolver = mock(CurrentUserResolver.class);
+		when(currentUserResolver.getUserId(any())).thenReturn(USER_ID);
+		GenerationRulesRegistry rulesRegistry = mock(GenerationRulesRegistry.class);
+		GenerationRules rules = mock(GenerationRules.class);
+		when(rulesRegistry.current()).thenReturn(rules);
+		when(rules.version()).thenReturn("v1");
+		eTags = new WorkResponseETags(new ObjectMapper(), rulesRegistry);
+		mockMvc = MockMvcBuilders.standaloneSetup(new KitchenDraftController(service, currentUserResolver, eTags))
+								 .build();
+	}
+
+	@Test
+	void currentDraftIsNotModifiedWithoutLoadingIt() throws Exception {
+		when(service.getDraftVersion(USER_ID, DRAFT)).thenReturn(3L);
+
+		mockMvc.perform(get("/api/kitchen-drafts/{uuid}", DRAFT).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+			   .andExpect(status().isNotModified())
+			   .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+		verify(service, never()).getDraft(anyLong(), any());
+	}
+
+	@Test
+	void changedDraftIsSentWithItsNewTag() throws Exception {
+		when(service.getDraftVersion(USER_ID, DRAFT)).thenReturn(4L);
+		when(service.getDraft(USER_ID, DRAFT)).thenReturn(draft(4L));
+
+		mockMvc.perform(get("/api/kitchen-drafts/{uuid}", DRAFT).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+			   .andExpect(status().isOk())
+			   .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+	}
+
+	@Test
+	void updateOfStaleVersionFailsThePrecondition() throws Exception {
+		when(service.updateDraft(eq(USER_ID), eq(DRAFT), any(), eq(2L))).thenThrow(new OptimisticLockingFailureException("stale"));
+
+		mockMvc.perform(put("/api/kitchen-drafts/{uuid}", DRAFT).contentType(MediaType.APPLICATION_JSON)
+																.content(BODY)
+																.header(HttpHeaders.IF_MATCH, "\"2\""))
+			   .andExpect(status().isPreconditionFailed());
+	}
+
+	@Test
+	void ifMatchWithoutVersionFailsThePreconditionBeforeUpdating() throws Exception {
+		mockMvc.perform(put("/api/kitchen-drafts/{uuid}", DRAFT).contentType(MediaType.APPLICATION_JSON)
+																.content(BODY)
+																.header(HttpHeaders.IF_MATCH, "W/\"2\""))
+			   .andExpect(status().isPreconditionFailed());
+		verify(service, never()).updateDraft(anyLong(), any(), any(), any());
+	}
+
+	@Test
+	void concurrentUpdateWithoutIfMatchIsAConflict() throws Exception {
+		when(service.updateDraft(eq(USER_ID), eq(DRAFT), any(), eq(null))).thenThrow(new OptimisticLockingFailureException("stale"));
+
+		mockMvc.perform(put("/api/kitchen-drafts/{uuid}", DRAFT).contentType(MediaType.APPLICATION_JSON)
+																.content(BODY))
+			   .andExpect(status().isConflict());
+	}
+
+	@Test
+	void unchangedListingIsNotModified() throws Exception {
+		when(service.getDraftListingStamp(USER_ID)).thenReturn("2/2026-10-18T10:00/7");
+		String eTag = ETags.ofHash("2/2026-10-18T10:00/7", "null", "null");
+
+		mockMvc.perform(get("/api/kitchen-drafts").header(HttpHeaders.IF_NONE_MATCH, eTag))
+			   .andExpect(status().isNotModified());
+		verify(service, never()).getUserDraftSummaries(anyLong(), any(), anyInt());
+	}
+
+	@Test
+	void unchangedCutListIsNotModifiedOnGet() throws Exception {
+		when(service.getDraftVersion(USER_ID, DRAFT)).thenReturn(3L);
+		String eTag = eTags.tag(DRAFT, 3L, NestingOptions.of(false, null));
+
+		mockMvc.perform(get("/api/kitchen-drafts/{uuid}/cut-list", DRAFT).header(HttpHeaders.IF_NONE_MATCH, eTag))
+			   .andExpect(status().isNotModified())
+			   .andExpect(header().string(HttpHeaders.ETAG, eTag));
+		verify(service, never()).generateDraftCutList(anyLong(), any(), any());
+	}
+
+	@Test
+	void unchangedCutListFailsThePreconditionOnPost() throws Exception {
+		when(service.getDraftVersion(USER_ID, DRAFT)).thenReturn(3L);
+		String eTag = eTags.tag(DRAFT, 3L, NestingOptions.of(false, null));
+
+		mockMvc.perform(post("/api/kitchen-drafts/{uuid}/cut-list", DRAFT).header(HttpHeaders.IF_NONE_MATCH, eTag))
+			   .andExpect(status().isPreconditionFailed());
+		verify(service, never()).generateDraftCutList(anyLong(), any(), any());
+	}
+
+	@Test
+	void cutListOfChangedDraftIsGeneratedWithItsNewTag() throws Exception {
+		NestingOptions options = NestingOptions.of(false, null);
+		when(service.getDraftVersion(USER_ID, DRAFT)).thenReturn(4L);
+		when(service.generateDraftCutList(USER_ID, DRAFT, options)).thenReturn(new WorkResponse());
+
+		mockMvc.perform(post("/api/kitchen-drafts/{uuid}/cut-list", DRAFT).header(HttpHeaders.IF_NONE_MATCH, eTags.tag(DRAFT, 3L, options)))
+			   .andExpect(status().isOk())
+			   .andExpect(header().string(HttpHeaders.ETAG, eTags.tag(DRAFT, 4L, options)));
+	}
+
+	@Test
+	void missingRevisionIsNotFound() throws Exception {
+		when(service.getDraftRevision(USER_ID, DRAFT, 9)).thenThrow(new RevisionNotFoundException(9));
+
+		mockMvc.perform(get("/api/kitchen-drafts/{uuid}/revisions/{revision}", DRAFT, 9))
+			   .andExpect(status().isNotFound());
+	}
+
+	private static KitchenDraftDto draft(long version) {
+		KitchenDraftDto dto = new KitchenDraftDto();
+		dto.setUuid(DRAFT);
+		dto.setName("Kuchnia");
+		dto.setVersion(version);
+		return dto;
+	}
+}
@@ -0,0 +1,45 @@
+package uk.jsikora.woodworksapi.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DraftPageCursorTests {
+
+	@Test
+	void encodedCursorDecodesToTheSamePosition() {
+		DraftPageCursor cursor = new DraftPageCursor(LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000), 42L);
+
+		String token = cursor.encode();
+
+		assertThat(token).matches("[A-Za-z0-9_-]+");
+		assertThat(DraftPageCursor.decode(token)).isEqualTo(cursor);
+	}
+
+	@Test
+	void cursorOnAWholeMinuteRoundTrips() {
+		// LocalDateTime.toString() leaves out zero seconds
+		DraftPageCursor cursor = new DraftPageCursor(LocalDateTime.of(2025, 1, 1, 12, 0), 1L);
+
+		assertThat(DraftPageCursor.decode(cursor.encode())).isEqualTo(cursor);
+	}
+
+	@Test
+	void malformedTokensAreRejected() {
+		assertThatThrownBy(() -> DraftPageCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Invalid draft page cursor");
+		assertThatThrownBy(() -> DraftPageCursor.decode(token("2025-01-01T12:00"))).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> DraftPageCursor.decode(token("yesterday|1"))).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> DraftPageCursor.decode(token("2025-01-01T12:00|x"))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static String token(String raw) {
+		return Base64.getUrlEncoder()
+				.withoutPadding()
+				.encodeToString(raw.getBytes());
+	}
+}
@@ -0,0 +1,88 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DraftCabinetsCodecTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void smallCabinetsRoundTripAsPlainSmile() {
+		DraftCabinetsCodec codec = new DraftCabinetsCodec(objectMapper, true, 512);
+		JsonNode cabinets = cabinets(1);
+
+		byte[] data = codec.encode(cabinets);
+
+		assertThat(data[0]).isEqualTo(DraftCabinetsCodec.Format.SMILE.tag());
+		assertThat(codec.decode(data)).isEqualTo(cabinets);
+	}
+
+	@Test
+	void largeCabinetsRoundTripDeflated() {
+		DraftCabinetsCodec codec = new DraftCabinetsCodec(objectMapper, true, 512);
+		JsonNode cabinets = cabinets(60);
+
+		byte[] data = codec.encode(cabinets);
+
+		assertThat(data[0]).isEqualTo(DraftCabinetsCodec.Format.SMILE_DEFLATE.tag());
+		assertThat(codec.decode(data)).isEqualTo(cabinets);
+	}
+
+	@Test
+	void compressionStartsAtTheThreshold() {
+		JsonNode cabinets = cabinets(5);
+		// Without compression the payload is the tag byte and the Smile document
+		int smileLength = new DraftCabinetsCodec(objectMapper, false, 0).encode(cabinets).length - 1;
+
+		assertThat(new DraftCabinetsCodec(objectMapper, true, smileLength + 1).encode(cabinets)[0])
+				.isEqualTo(DraftCabinetsCodec.Format.SMILE.tag());
+		assertThat(new DraftCabinetsCodec(objectMapper, true, smileLength).encode(cabinets)[0])
+				.isEqualTo(DraftCabinetsCodec.Format.SMILE_DEFLATE.tag());
+		assertThat(new DraftCabinetsCodec(objectMapper, false, 0).encode(cabinets)[0])
+				.isEqualTo(DraftCabinetsCodec.Format.SMILE.tag());
+	}
+
+	@Test
+	void rowsOfEitherSettingStayReadable() {
+		JsonNode cabinets = cabinets(60);
+		byte[] deflated = new DraftCabinetsCodec(objectMapper, true, 0).encode(cabinets);
+
+		assertThat(new DraftCabinetsCodec(objectMapper, false, 512).decode(deflated)).isEqualTo(cabinets);
+	}
+
+	@Test
+	void legacyTextRowsAreRead() {
+		DraftCabinetsCodec codec = new DraftCabinetsCodec(objectMapper, true, 512);
+		JsonNode cabinets = cabinets(3);
+
+		assertThat(codec.decodeText(cabinets.toString())).isEqualTo(cabinets);
+		assertThatThrownBy(() -> codec.decodeText("[{\"width\":")).hasMessage("Failed to deserialize cabinets");
+	}
+
+	@Test
+	void unknownOrEmptyPayloadIsRejected() {
+		DraftCabinetsCodec codec = new DraftCabinetsCodec(objectMapper, true, 512);
+
+		assertThatThrownBy(() -> codec.decode(new byte[0])).hasMessageContaining("empty payload");
+		assertThatThrownBy(() -> codec.decode(new byte[]{9, 1, 2})).hasMessage("Failed to deserialize cabinets");
+	}
+
+	private ArrayNode cabinets(int count) {
+		ArrayNode cabinets = objectMapper.createArrayNode();
+		for (int i = 0; i < count; i++) {
+			cabinets.addObject()
+					.put("type", i % 2 == 0 ? "BASE" : "WALL")
+					.put("name", "Szafka " + i)
+					.put("width", 300 + 50 * (i % 7))
+					.put("height", 720)
+					.put("depth", 510);
+		}
+		return cabinets;
+	}
+}
@@ -0,0 +1,72 @@
+package uk.jsikora.woodworksapi.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.jsikora.woodworksapi.workService.WorkResponse;
+import uk.jsikora.woodworksapi.workService.nesting.NestingOptions;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRules;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesRegistry;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DraftCutListCacheTests {
+
+	private final UUID draft = UUID.randomUUID();
+	private final UUID other = UUID.randomUUID();
+	private final GenerationRulesRegistry rulesRegistry = mock(GenerationRulesRegistry.class);
+	private final GenerationRules rules = mock(GenerationRules.class);
+	private final DraftCutListCache cache = new DraftCutListCache(100, rulesRegistry, new SimpleMeterRegistry());
+
+	@BeforeEach
+	void setUp() {
+		when(rulesRegistry.current()).thenReturn(rules);
+		when(rules.version()).thenReturn("v1");
+	}
+
+	@Test
+	void entriesAreKeyedByDraftVersionOptionsAndRules() {
+		WorkResponse response = new WorkResponse();
+		cache.put(cache.key(draft, 3, NestingOptions.GREEDY), response);
+
+		assertThat(cache.getIfPresent(cache.key(draft, 3, NestingOptions.GREEDY))).isSameAs(response);
+		assertThat(cache.getIfPresent(cache.key(draft, 4, NestingOptions.GREEDY))).isNull();
+		assertThat(cache.getIfPresent(cache.key(other, 3, NestingOptions.GREEDY))).isNull();
+		assertThat(cache.getIfPresent(cache.key(draft, 3, NestingOptions.optimised(Duration.ofSeconds(1))))).isNull();
+
+		// A rules reload changes the key of every draft
+		when(rules.version()).thenReturn("v2");
+		assertThat(cache.getIfPresent(cache.key(draft, 3, NestingOptions.GREEDY))).isNull();
+	}
+
+	@Test
+	void evictRemovesEveryVersionOfOneDraft() {
+		DraftCutListCache.DraftKey oldVersion = cache.key(draft, 3, NestingOptions.GREEDY);
+		DraftCutListCache.DraftKey newVersion = cache.key(draft, 4, NestingOptions.GREEDY);
+		DraftCutListCache.DraftKey otherDraft = cache.key(other, 3, NestingOptions.GREEDY);
+		cache.put(oldVersion, new WorkResponse());
+		cache.put(newVersion, new WorkResponse());
+		cache.put(otherDraft, new WorkResponse());
+
+		cache.evict(draft);
+
+		assertThat(cache.getIfPresent(oldVersion)).isNull();
+		assertThat(cache.getIfPresent(newVersion)).isNull();
+		assertThat(cache.getIfPresent(otherDraft)).isNotNull();
+	}
+
+	@Test
+	void rulesChangeDropsAllEntries() {
+		DraftCutListCache.DraftKey key = cache.key(draft, 3, NestingOptions.GREEDY);
+		cache.put(key, new WorkResponse());
+
+		cache.invalidateAll();
+
+		assertThat(cache.getIfPresent(key)).isNull();
+	}
+}
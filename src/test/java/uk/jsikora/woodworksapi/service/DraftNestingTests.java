@@ -0,0 +1,81 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.jsikora.woodworksapi.workService.WorkService;
+import uk.jsikora.woodworksapi.workService.nesting.IncrementalNestingService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DraftNestingTests {
+
+	private final UUID draft = UUID.randomUUID();
+	private final ArrayNode cabinets = new ObjectMapper().createArrayNode();
+	private final DraftWorkRequestMapper mapper = mock(DraftWorkRequestMapper.class);
+	private final IncrementalNestingService incrementalNestingService = mock(IncrementalNestingService.class);
+	private final List<Runnable> submitted = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void refreshRunsInTheBackgroundAfterCommit() {
+		DraftNesting nesting = new DraftNesting(mapper, mock(WorkService.class), incrementalNestingService, submitted::add);
+		when(incrementalNestingService.hasLayout(draft)).thenReturn(true);
+		when(mapper.toWorkRequest(cabinets)).thenReturn(Optional.empty());
+		TransactionSynchronizationManager.initSynchronization();
+
+		nesting.refresh(draft, cabinets);
+		assertThat(submitted).isEmpty();
+
+		TransactionSynchronizationManager.getSynchronizations()
+										 .forEach(TransactionSynchronization::afterCommit);
+		assertThat(submitted).hasSize(1);
+		verify(mapper, never()).toWorkRequest(any());
+
+		submitted.get(0)
+				 .run();
+		// Cabinets that no longer convert to a cut list have no layout to keep
+		verify(incrementalNestingService).evict(draft);
+	}
+
+	@Test
+	void draftsWithoutALayoutAreNotRefreshed() {
+		DraftNesting nesting = new DraftNesting(mapper, mock(WorkService.class), incrementalNestingService, submitted::add);
+
+		nesting.refresh(draft, cabinets);
+
+		assertThat(submitted).isEmpty();
+	}
+
+	@Test
+	void saturatedExecutorDropsTheLayout() {
+		DraftNesting nesting = new DraftNesting(mapper, mock(WorkService.class), incrementalNestingService, task -> {
+			throw new RejectedExecutionException("full");
+		});
+		when(incrementalNestingService.hasLayout(draft)).thenReturn(true);
+
+		nesting.refresh(draft, cabinets);
+
+		verify(incrementalNestingService).evict(draft);
+	}
+}
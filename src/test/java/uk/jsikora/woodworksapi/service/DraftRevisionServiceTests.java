@@ -0,0 +1,115 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import uk.jsikora.woodworksapi.dto.DraftRevisionDto;
+import uk.jsikora.woodworksapi.entity.KitchenDraftRevision;
+import uk.jsikora.woodworksapi.repository.KitchenDraftRevisionRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DraftRevisionServiceTests {
+
+	private static final long DRAFT_ID = 7L;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final List<KitchenDraftRevision> stored = new ArrayList<>();
+	private DraftRevisionService service;
+
+	@BeforeEach
+	void setUp() {
+		// In-memory stand-in for the revision table
+		KitchenDraftRevisionRepository repository = mock(KitchenDraftRevisionRepository.class);
+		when(repository.save(any())).thenAnswer(invocation -> {
+			stored.add(invocation.getArgument(0));
+			return invocation.getArgument(0);
+		});
+		when(repository.findLatestRevision(anyLong())).thenAnswer(invocation -> stored.stream()
+																					  .map(KitchenDraftRevision::getRevision)
+																					  .max(Integer::compare));
+		when(repository.findByDraftIdAndRevisionBetweenOrderByRevisionAsc(anyLong(), anyInt(), anyInt())).thenAnswer(invocation -> {
+			int from = invocation.getArgument(1);
+			int to = invocation.getArgument(2);
+			return stored.stream()
+						 .filter(r -> r.getRevision() >= from && r.getRevision() <= to)
+						 .sorted(Comparator.comparing(KitchenDraftRevision::getRevision))
+						 .toList();
+		});
+		when(repository.deleteOlderThan(anyLong(), anyInt())).thenAnswer(invocation -> {
+			int revision = invocation.getArgument(1);
+			int before = stored.size();
+			stored.removeIf(r -> r.getRevision() < revision);
+			return before - stored.size();
+		});
+		service = new DraftRevisionService(repository, new DraftCabinetsCodec(new ObjectMapper(), true, 512), 4, 100);
+	}
+
+	@Test
+	void rebuildsEveryRevisionFromItsSnapshotAndPatches() {
+		List<JsonNode> documents = new ArrayList<>();
+		JsonNode before = null;
+		for (int i = 0; i < 10; i++) {
+			JsonNode after = document("Kuchnia " + (i / 3), i);
+			service.record(DRAFT_ID, before, after);
+			documents.add(after);
+			before = after;
+		}
+
+		assertThat(stored).extracting(KitchenDraftRevision::isSnapshot)
+						  .containsExactly(true, false, false, false, true, false, false, false, true, false);
+		for (int revision = 1; revision <= documents.size(); revision++) {
+			DraftRevisionDto dto = service.materialise(DRAFT_ID, revision);
+			JsonNode expected = documents.get(revision - 1);
+			assertThat(dto.cabinets()).isEqualTo(expected.get("cabinets"));
+			assertThat(dto.name()).isEqualTo(expected.get("name")
+													 .asText());
+		}
+	}
+
+	@Test
+	void unchangedDocumentIsNotRecorded() {
+		JsonNode document = document("Kuchnia", 2);
+		service.record(DRAFT_ID, null, document);
+		service.record(DRAFT_ID, document, document.deepCopy());
+
+		assertThat(stored).hasSize(1);
+	}
+
+	@Test
+	void missingOrNonPositiveRevisionIsNotFound() {
+		service.record(DRAFT_ID, null, document("Kuchnia", 1));
+
+		for (int revision : new int[]{0, -3, 2}) {
+			assertThatThrownBy(() -> service.materialise(DRAFT_ID, revision)).isInstanceOf(RevisionNotFoundException.class);
+		}
+		assertThat(service.materialise(DRAFT_ID, 1)
+						  .revision()).isEqualTo(1);
+	}
+
+	// Each step widens a different cabinet, every third one also adds a cabinet
+	private JsonNode document(String name, int step) {
+		ObjectNode document = objectMapper.createObjectNode();
+		document.put("name", name);
+		ArrayNode cabinets = document.putArray("cabinets");
+		for (int i = 0; i < 3 + step / 3; i++) {
+			cabinets.addObject()
+					.put("cabinetName", "Szafka " + i)
+					.put("width", 600 + (i == step % 3 ? step * 10 : 0));
+		}
+		return document;
+	}
+}
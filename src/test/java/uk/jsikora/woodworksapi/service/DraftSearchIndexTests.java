@@ -0,0 +1,61 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import uk.jsikora.woodworksapi.dto.DraftSearchCriteria;
+import uk.jsikora.woodworksapi.workService.CabinType;
+import uk.jsikora.woodworksapi.workService.DrawerSystem;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DraftSearchIndexTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final DraftSearchIndex searchIndex = new DraftSearchIndex(objectMapper);
+
+	@Test
+	void documentKeepsOnlyIndexedScalarFields() throws Exception {
+		String cabinets = """
+				[{"cabinType":"DRAWERS","drawerSystem":"BLUM_ANTARO","width":600,"height":720,"depth":510,
+				  "cabinetName":"Szuflady","drawers":[{"height":360,"depth":450}]},
+				 {"cabinType":"DOORS","width":400,"height":"720","depth":null,"colors":{"frontColor":"Dąb"}}]""";
+
+		assertThat(searchIndex.toDocument(objectMapper.readTree(cabinets)))
+				.isEqualTo("[{\"cabinType\":\"DRAWERS\",\"drawerSystem\":\"BLUM_ANTARO\",\"width\":600,\"height\":720,\"depth\":510},"
+						   + "{\"cabinType\":\"DOORS\",\"width\":400,\"height\":\"720\"}]");
+	}
+
+	@Test
+	void documentOfMissingCabinetsIsEmpty() throws Exception {
+		assertThat(searchIndex.toDocument(null)).isEqualTo("[]");
+		assertThat(searchIndex.toDocument(objectMapper.readTree("{\"cabinType\":\"DOORS\"}"))).isEqualTo("[]");
+	}
+
+	@Test
+	void containmentMatchesOnlyEnumCriteria() {
+		DraftSearchCriteria criteria = new DraftSearchCriteria(CabinType.DRAWERS, DrawerSystem.GTV_AXIS_PRO, 500, null, null, null, null, null);
+
+		assertThat(searchIndex.containment(criteria)).isEqualTo("[{\"cabinType\":\"DRAWERS\",\"drawerSystem\":\"GTV_AXIS_PRO\"}]");
+		// Any draft with a cabinet contains an empty object
+		assertThat(searchIndex.containment(criteria(null, null))).isEqualTo("[{}]");
+	}
+
+	@Test
+	void jsonPathRequiresOneCabinetToMatchEveryCriterion() {
+		DraftSearchCriteria criteria = new DraftSearchCriteria(CabinType.DOORS, DrawerSystem.BLUM_ANTARO, 400, 800, null, 720, 500, null);
+
+		assertThat(searchIndex.jsonPath(criteria))
+				.isEqualTo("$[*] ? (@.cabinType == \"DOORS\" && @.drawerSystem == \"BLUM_ANTARO\""
+						   + " && @.width >= 400 && @.width <= 800 && @.height <= 720 && @.depth >= 500)");
+	}
+
+	@Test
+	void jsonPathWithoutCriteriaMatchesEveryCabinet() {
+		assertThat(searchIndex.jsonPath(criteria(null, null))).isEqualTo("$[*]");
+		assertThat(searchIndex.jsonPath(criteria(CabinType.OVEN, null))).isEqualTo("$[*] ? (@.cabinType == \"OVEN\")");
+	}
+
+	private static DraftSearchCriteria criteria(CabinType cabinType, DrawerSystem drawerSystem) {
+		return new DraftSearchCriteria(cabinType, drawerSystem, null, null, null, null, null, null);
+	}
+}
@@ -0,0 +1,76 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonPatchesTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void diffAppliedToSourceYieldsTarget() throws Exception {
+		String[][] pairs = {
+				{"{\"name\":\"A\",\"cabinets\":[]}", "{\"name\":\"B\",\"cabinets\":[{\"width\":600}]}"},
+				{"{\"cabinets\":[{\"width\":600},{\"width\":400}]}", "{\"cabinets\":[{\"width\":600},{\"width\":450}]}"},
+				{"{\"cabinets\":[1,2,3,4,5]}", "{\"cabinets\":[1,5]}"},
+				{"{\"cabinets\":[1,2]}", "{\"cabinets\":[0,1,9,2,3]}"},
+				{"{\"a\":{\"b\":1},\"c\":2}", "{\"a\":[1],\"d\":null}"},
+				{"{\"a/b\":1,\"c~d\":2}", "{\"a/b\":3,\"c~d\":4}"},
+				{"{\"a\":1}", "[1,2]"}
+		};
+		for (String[] pair : pairs) {
+			JsonNode source = objectMapper.readTree(pair[0]);
+			JsonNode target = objectMapper.readTree(pair[1]);
+
+			assertThat(JsonPatches.applyPatch(source, JsonPatches.diff(source, target))).as(pair[0] + " -> " + pair[1])
+																						  .isEqualTo(target);
+		}
+	}
+
+	@Test
+	void insertingOneCabinetIsOneOperation() throws Exception {
+		JsonNode source = objectMapper.readTree("{\"cabinets\":[{\"w\":1},{\"w\":2},{\"w\":3}]}");
+		JsonNode target = objectMapper.readTree("{\"cabinets\":[{\"w\":1},{\"w\":9},{\"w\":2},{\"w\":3}]}");
+
+		assertThat(JsonPatches.diff(source, target)).isEqualTo(objectMapper.readTree("[{\"op\":\"add\",\"path\":\"/cabinets/1\",\"value\":{\"w\":9}}]"));
+		assertThat(JsonPatches.diff(source, source)).isEmpty();
+	}
+
+	@Test
+	void failedPatchLeavesTargetUntouched() throws Exception {
+		JsonNode target = objectMapper.readTree("{\"cabinets\":[{\"w\":1}]}");
+		JsonNode patch = objectMapper.readTree("[{\"op\":\"replace\",\"path\":\"/cabinets/0/w\",\"value\":2},{\"op\":\"remove\",\"path\":\"/missing\"}]");
+
+		assertThatThrownBy(() -> JsonPatches.applyPatch(target, patch)).isInstanceOf(IllegalArgumentException.class);
+		assertThat(target).isEqualTo(objectMapper.readTree("{\"cabinets\":[{\"w\":1}]}"));
+	}
+
+	@Test
+	void everyPatchOperationIsApplied() throws Exception {
+		JsonNode target = objectMapper.readTree("{\"name\":\"A\",\"cabinets\":[{\"w\":1},{\"w\":2}]}");
+		JsonNode patch = objectMapper.readTree("[{\"op\":\"test\",\"path\":\"/name\",\"value\":\"A\"},"
+													   + "{\"op\":\"copy\",\"from\":\"/cabinets/0\",\"path\":\"/cabinets/-\"},"
+													   + "{\"op\":\"move\",\"from\":\"/cabinets/1\",\"path\":\"/cabinets/0\"},"
+													   + "{\"op\":\"replace\",\"path\":\"/cabinets/2/w\",\"value\":3},"
+													   + "{\"op\":\"remove\",\"path\":\"/name\"},"
+													   + "{\"op\":\"add\",\"path\":\"/name\",\"value\":\"B\"}]");
+
+		assertThat(JsonPatches.applyPatch(target, patch)).isEqualTo(objectMapper.readTree("{\"name\":\"B\",\"cabinets\":[{\"w\":2},{\"w\":1},{\"w\":3}]}"));
+		assertThatThrownBy(() -> JsonPatches.applyPatch(target, objectMapper.readTree("[{\"op\":\"test\",\"path\":\"/name\",\"value\":\"B\"}]")))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> JsonPatches.applyPatch(target, objectMapper.readTree("{\"op\":\"add\"}"))).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void mergePatchFollowsRfc7386() throws Exception {
+		JsonNode target = objectMapper.readTree("{\"a\":\"b\",\"c\":{\"d\":\"e\",\"f\":\"g\"},\"cabinets\":[1,2]}");
+		JsonNode patch = objectMapper.readTree("{\"a\":\"z\",\"c\":{\"f\":null},\"cabinets\":[3]}");
+
+		assertThat(JsonPatches.applyMergePatch(target, patch)).isEqualTo(objectMapper.readTree("{\"a\":\"z\",\"c\":{\"d\":\"e\"},\"cabinets\":[3]}"));
+		assertThat(target).isEqualTo(objectMapper.readTree("{\"a\":\"b\",\"c\":{\"d\":\"e\",\"f\":\"g\"},\"cabinets\":[1,2]}"));
+	}
+}
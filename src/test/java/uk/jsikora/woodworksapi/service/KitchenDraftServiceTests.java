@@ -0,0 +1,210 @@
+package uk.jsikora.woodworksapi.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.jsikora.woodworksapi.dto.DraftPageCursor;
+import uk.jsikora.woodworksapi.dto.KitchenDraftDto;
+import uk.jsikora.woodworksapi.dto.KitchenDraftSummaryDto;
+import uk.jsikora.woodworksapi.dto.KitchenDraftSummaryPage;
+import uk.jsikora.woodworksapi.entity.KitchenDraft;
+import uk.jsikora.woodworksapi.repository.KitchenDraftRepository;
+import uk.jsikora.woodworksapi.repository.KitchenDraftSummaryView;
+import uk.jsikora.woodworksapi.user.ProjectQuota;
+import uk.jsikora.woodworksapi.user.UserLimits;
+import uk.jsikora.woodworksapi.user.UserService;
+import uk.jsikora.woodworksapi.workService.WorkService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class KitchenDraftServiceTests {
+
+	private static final long USER_ID = 1L;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final DraftCabinetsCodec codec = new DraftCabinetsCodec(objectMapper, true, 512);
+	private final KitchenDraftRepository repository = mock(KitchenDraftRepository.class);
+	private final DraftRevisionService revisions = mock(DraftRevisionService.class);
+	private final DraftNesting draftNesting = mock(DraftNesting.class);
+	private final DraftCutListCache cutListCache = mock(DraftCutListCache.class);
+	private final KitchenDraft draft = new KitchenDraft();
+	private KitchenDraftService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		UserService userService = mock(UserService.class);
+		when(userService.findLimits(USER_ID)).thenReturn(Optional.of(new UserLimits(USER_ID, 5, 10)));
+		service = new KitchenDraftService(repository, objectMapper, userService, mock(ProjectQuota.class), mock(WorkService.class),
+										  mock(DraftWorkRequestMapper.class), codec, mock(DraftStorageUpgrader.class),
+										  new DraftSearchIndex(objectMapper), revisions, draftNesting, cutListCache);
+
+		draft.setId(7L);
+		draft.setUuid(UUID.randomUUID());
+		draft.setUserId(USER_ID);
+		draft.setName("Kuchnia");
+		draft.setVersion(3L);
+		draft.setCabinetsData(codec.encode(objectMapper.readTree("[{\"width\":600},{\"width\":400}]")));
+		draft.setCabinetsDoc("[]");
+		when(repository.findByUuidAndUserId(draft.getUuid(), USER_ID)).thenReturn(Optional.of(draft));
+		// Stands in for the versioned UPDATE, which is only issued when something changed
+		when(repository.saveAndFlush(any())).thenAnswer(invocation -> {
+			KitchenDraft saved = invocation.getArgument(0);
+			saved.setVersion(saved.getVersion() + 1);
+			return saved;
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void jsonPatchIsAppliedToNameAndCabinets() throws Exception {
+		JsonNode patch = objectMapper.readTree("[{\"op\":\"replace\",\"path\":\"/cabinets/1/width\",\"value\":450},"
+													   + "{\"op\":\"add\",\"path\":\"/cabinets/-\",\"value\":{\"width\":300}},"
+													   + "{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"Kuchnia 2\"}]");
+
+		KitchenDraftDto patched = service.patchDraft(USER_ID, draft.getUuid(), patch, false, 3L);
+
+		assertThat(patched.getName()).isEqualTo("Kuchnia 2");
+		assertThat(patched.getVersion()).isEqualTo(4L);
+		assertThat(codec.decode(draft.getCabinetsData())).isEqualTo(objectMapper.readTree("[{\"width\":600},{\"width\":450},{\"width\":300}]"));
+		verify(revisions).record(eq(7L), eq(objectMapper.readTree("{\"name\":\"Kuchnia\",\"cabinets\":[{\"width\":600},{\"width\":400}]}")),
+								 eq(objectMapper.readTree("{\"name\":\"Kuchnia 2\",\"cabinets\":[{\"width\":600},{\"width\":450},{\"width\":300}]}")));
+		// The versioned UPDATE already holds the row for numbering the revision
+		verify(repository, never()).findForUpdate(any(), any());
+	}
+
+	@Test
+	void mergePatchReplacesOnlyTheGivenMembers() throws Exception {
+		KitchenDraftDto patched = service.patchDraft(USER_ID, draft.getUuid(), objectMapper.readTree("{\"name\":\"Salon\"}"), true, null);
+
+		assertThat(patched.getName()).isEqualTo("Salon");
+		assertThat(patched.getCabinets()).isEqualTo(objectMapper.readTree("[{\"width\":600},{\"width\":400}]"));
+	}
+
+	@Test
+	void patchOfAnOlderVersionIsRejected() throws Exception {
+		JsonNode patch = objectMapper.readTree("[{\"op\":\"replace\",\"path\":\"/name\",\"value\":\"Salon\"}]");
+
+		assertThatThrownBy(() -> service.patchDraft(USER_ID, draft.getUuid(), patch, false, 2L)).isInstanceOf(OptimisticLockingFailureException.class);
+		verify(repository, never()).saveAndFlush(any());
+		assertThat(draft.getName()).isEqualTo("Kuchnia");
+	}
+
+	@Test
+	void patchMustLeaveANamedDraftWithCabinets() throws Exception {
+		JsonNode patch = objectMapper.readTree("[{\"op\":\"remove\",\"path\":\"/cabinets\"}]");
+
+		assertThatThrownBy(() -> service.patchDraft(USER_ID, draft.getUuid(), patch, false, 3L)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> service.patchDraft(USER_ID, draft.getUuid(), objectMapper.readTree("{\"name\":\" \"}"), true, 3L))
+				.isInstanceOf(IllegalArgumentException.class);
+		verify(repository, never()).saveAndFlush(any());
+	}
+
+	@Test
+	void saveWithoutChangesLocksTheRowForItsRevision() throws Exception {
+		doAnswer(invocation -> invocation.getArgument(0)).when(repository)
+														 .saveAndFlush(any());
+
+		service.patchDraft(USER_ID, draft.getUuid(), objectMapper.readTree("[]"), false, 3L);
+
+		verify(repository).findForUpdate(draft.getUuid(), USER_ID);
+	}
+
+	@Test
+	void updateEvictsTheCachedCutListsAfterCommit() throws Exception {
+		TransactionSynchronizationManager.initSynchronization();
+
+		service.patchDraft(USER_ID, draft.getUuid(), objectMapper.readTree("{\"name\":\"Salon\"}"), true, 3L);
+		verify(cutListCache, never()).evict(any());
+
+		afterCommit();
+		verify(cutListCache).evict(draft.getUuid());
+	}
+
+	@Test
+	void deleteEvictsTheDraftAfterCommit() {
+		when(repository.deleteByUuidAndUserId(draft.getUuid(), USER_ID)).thenReturn(1L);
+		TransactionSynchronizationManager.initSynchronization();
+
+		service.deleteDraft(USER_ID, draft.getUuid());
+		verify(draftNesting, never()).evict(any());
+		verify(cutListCache, never()).evict(any());
+
+		afterCommit();
+		verify(draftNesting).evict(draft.getUuid());
+		verify(cutListCache).evict(draft.getUuid());
+	}
+
+	@Test
+	void deleteWithoutATransactionEvictsAtOnce() {
+		service.deleteDraft(USER_ID, draft.getUuid());
+
+		verify(draftNesting).evict(draft.getUuid());
+		verify(cutListCache).evict(draft.getUuid());
+	}
+
+	@Test
+	void fullPageCarriesTheCursorOfItsLastDraft() {
+		List<KitchenDraftSummaryView> rows = summaries(10, 9, 8);
+		when(repository.findSummaries(USER_ID, Limit.of(3))).thenReturn(rows);
+
+		KitchenDraftSummaryPage page = service.getUserDraftSummaries(USER_ID, null, 2);
+
+		assertThat(page.drafts()).extracting(KitchenDraftSummaryDto::getUuid)
+				.containsExactly(rows.get(0).uuid(), rows.get(1).uuid());
+		assertThat(DraftPageCursor.decode(page.nextCursor())).isEqualTo(new DraftPageCursor(rows.get(1).updatedAt(), 9L));
+	}
+
+	@Test
+	void nextPageStartsAfterTheCursorAndEndsTheListing() {
+		DraftPageCursor cursor = new DraftPageCursor(updatedAt(9), 9L);
+		when(repository.findSummariesAfter(USER_ID, cursor.updatedAt(), 9L, Limit.of(3))).thenReturn(summaries(8, 7));
+
+		KitchenDraftSummaryPage page = service.getUserDraftSummaries(USER_ID, cursor, 2);
+
+		// Exactly a page left: no extra row, so no cursor
+		assertThat(page.drafts()).hasSize(2);
+		assertThat(page.nextCursor()).isNull();
+	}
+
+	private static void afterCommit() {
+		TransactionSynchronizationManager.getSynchronizations()
+				.forEach(TransactionSynchronization::afterCommit);
+	}
+
+	private static List<KitchenDraftSummaryView> summaries(long... ids) {
+		return LongStream.of(ids)
+				.mapToObj(id -> new KitchenDraftSummaryView(id, UUID.randomUUID(), "Kuchnia " + id, updatedAt(0), updatedAt(id)))
+				.toList();
+	}
+
+	private static LocalDateTime updatedAt(long id) {
+		return LocalDateTime.of(2025, 1, 1, 12, 0)
+				.plusMinutes(id);
+	}
+}
@@ -0,0 +1,74 @@
+package uk.jsikora.woodworksapi.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProjectQuotaTests {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final UserService userService = mock(UserService.class);
+	private final ProjectQuota quota = new ProjectQuota(jdbcTemplate, userService, new SimpleMeterRegistry());
+
+	@BeforeEach
+	void setUp() {
+		when(userService.findLimits(1L)).thenReturn(Optional.of(new UserLimits(1L, 3, 40)));
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void reservationInATransactionWaitsForTheCommit() {
+		when(jdbcTemplate.update(startsWith("UPDATE base_user SET project_count = project_count + 1"), eq(1L))).thenReturn(1);
+		TransactionSynchronizationManager.initSynchronization();
+
+		quota.reserve(1L);
+		verify(jdbcTemplate, never()).update(anyString(), eq(1L));
+
+		beforeCommit();
+		verify(jdbcTemplate).update(startsWith("UPDATE base_user SET project_count = project_count + 1"), eq(1L));
+	}
+
+	@Test
+	void fullQuotaFailsTheCommit() {
+		TransactionSynchronizationManager.initSynchronization();
+
+		quota.reserve(1L);
+
+		assertThatThrownBy(this::beforeCommit).hasMessageContaining("(3)");
+	}
+
+	@Test
+	void withoutATransactionTheSlotIsTakenAtOnce() {
+		assertThatThrownBy(() -> quota.reserve(1L)).hasMessageContaining("(3)");
+
+		quota.release(1L);
+		verify(jdbcTemplate).update(startsWith("UPDATE base_user SET project_count = project_count - 1"), eq(1L));
+		assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+	}
+
+	private void beforeCommit() {
+		TransactionSynchronizationManager.getSynchronizations()
+										 .forEach(synchronization -> synchronization.beforeCommit(false));
+	}
+}
@@ -0,0 +1,87 @@
+package uk.jsikora.woodworksapi.user;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UsageCountersTests {
+
+	private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	private final UsageCounters counters = new UsageCounters(jdbcTemplate, transactionManager);
+
+	@BeforeEach
+	void setUp() {
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+	}
+
+	@Test
+	void flushWritesOneDeltaPerUserInOneBatch() {
+		counters.addGenerations(1L, 2);
+		counters.addGenerations(2L, 1);
+		counters.addGenerations(1L, 3);
+
+		assertThat(counters.flush()).containsExactlyInAnyOrder(1L, 2L);
+
+		assertThat(batch()).containsExactlyInAnyOrder(List.of(5L, 1L), List.of(1L, 2L));
+		verify(transactionManager).commit(any());
+		// Flushed deltas are gone
+		assertThat(counters.flush()).isEmpty();
+		verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+	}
+
+	@Test
+	void flushWithoutDeltasDoesNotTouchTheDatabase() {
+		counters.addGenerations(1L, 0);
+
+		assertThat(counters.flush()).isEmpty();
+
+		verify(transactionManager, never()).getTransaction(any());
+		verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+	}
+
+	@Test
+	void failedFlushMergesItsDeltasBack() {
+		when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+				.thenThrow(new DataAccessResourceFailureException("Connection refused"))
+				.thenReturn(new int[]{1});
+		counters.addGenerations(1L, 2);
+
+		assertThat(counters.flush()).isEmpty();
+		verify(transactionManager).rollback(any());
+
+		// Increments made after the failure add up with the ones that were not written
+		counters.addGenerations(1L, 3);
+		assertThat(counters.flush()).containsExactly(1L);
+		verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+		assertThat(batch()).containsExactly(List.of(5L, 1L));
+	}
+
+	// Rows of the last batch written
+	@SuppressWarnings("unchecked")
+	private List<List<Object>> batch() {
+		ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+		verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), args.capture());
+		return args.getValue()
+				.stream()
+				.map(List::of)
+				.toList();
+	}
+}
@@ -0,0 +1,68 @@
+package uk.jsikora.woodworksapi.user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTests {
+
+	private final UserRepository repository = mock(UserRepository.class);
+	private final UsageCounters usageCounters = mock(UsageCounters.class);
+	private final BaseUser user = BaseUser.builder()
+										  .id(1L)
+										  .build();
+	private UserServiceImpl service;
+
+	@BeforeEach
+	void setUp() {
+		when(repository.findById(1L)).thenAnswer(invocation -> Optional.of(user));
+		when(usageCounters.flush()).thenReturn(List.of(1L));
+		service = new UserServiceImpl(repository, usageCounters, 100, 60_000, new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void flushingUsageKeepsTheCachedLimits() {
+		service.findLimits(1L);
+		service.flushUsageCounters();
+		service.findLimits(1L);
+
+		verify(repository, times(1)).findById(1L);
+	}
+
+	@Test
+	void changedUserIsEvictedAfterCommit() {
+		BaseUserCacheListener listener = new BaseUserCacheListener(service);
+		assertThat(service.findLimits(1L)).map(UserLimits::maxProjects)
+										  .contains(5);
+
+		TransactionSynchronizationManager.initSynchronization();
+		user.setMaxProjects(8);
+		listener.changed(user);
+		assertThat(service.findLimits(1L)).map(UserLimits::maxProjects)
+										  .contains(5);
+
+		TransactionSynchronizationManager.getSynchronizations()
+										 .forEach(TransactionSynchronization::afterCommit);
+		assertThat(service.findLimits(1L)).map(UserLimits::maxProjects)
+										  .contains(8);
+	}
+}
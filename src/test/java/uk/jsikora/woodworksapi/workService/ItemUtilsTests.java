@@ -0,0 +1,90 @@
+package uk.jsikora.woodworksapi.workService;
+
+import org.junit.jupiter.api.Test;
+import uk.jsikora.woodworksapi.workService.generators.ItemType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemUtilsTests {
+
+	@Test
+	void equalItemsAreMergedInOrderOfFirstOccurrence() {
+		Item side = new Item("Bok", 720, 510, 18, 1, MaterialType.PLYTA_MEBLOWA, ItemType.CORPUS, EdgeBanding.ONE_WIDTH);
+		Item shelf = new Item("Półka", 564, 490, 18, 2, MaterialType.PLYTA_MEBLOWA, ItemType.CORPUS, EdgeBanding.ONE_WIDTH);
+		Item back = new Item("Plecy", 716, 596, 3, 1, MaterialType.HDF, ItemType.HDF);
+
+		List<Item> aggregated = ItemUtils.aggregateItems(List.of(shelf, side, back, side, shelf.withCount(3)));
+
+		assertThat(aggregated).containsExactly(shelf.withCount(5), side.withCount(2), back);
+		// Items whose count does not change are not copied
+		assertThat(aggregated.get(2)).isSameAs(back);
+	}
+
+	@Test
+	void itemsDifferingInAnyKeyPartStaySeparate() {
+		Item item = new Item("Bok", 720, 510, 18, 1, MaterialType.PLYTA_MEBLOWA, ItemType.CORPUS, EdgeBanding.ONE_WIDTH);
+		List<Item> variants = List.of(item,
+									  new Item("Bok lewy", 720, 510, 18, 1, MaterialType.PLYTA_MEBLOWA, ItemType.CORPUS, EdgeBanding.ONE_WIDTH),
+									  new Item("Bok", 510, 720, 18, 1, MaterialType.PLYTA_MEBLOWA, ItemType.CORPUS, EdgeBanding.ONE_WIDTH),
+									  new Item("Bok", 720, 510, 16, 1, MaterialType.PLYTA_MEBLOWA, ItemType.CORPUS, EdgeBanding.ONE_WIDTH),
+									  new Item("Bok", 720, 510, 18, 1, MaterialType.MDF, ItemType.CORPUS, EdgeBanding.ONE_WIDTH),
+									  new Item("Bok", 720, 510, 18, 1, MaterialType.PLYTA_MEBLOWA, ItemType.FRONT, EdgeBanding.ONE_WIDTH),
+									  new Item("Bok", 720, 510, 18, 1, MaterialType.PLYTA_MEBLOWA, ItemType.CORPUS, EdgeBanding.ALL),
+									  new Item(null, 720, 510, 18, 1, null, null));
+
+		assertThat(ItemUtils.aggregateItems(variants)).containsExactlyElementsOf(variants);
+		assertThat(ItemUtils.aggregateItems(List.of(variants.get(7), variants.get(7)))).containsExactly(variants.get(7)
+																												   .withCount(2));
+	}
+
+	@Test
+	void groupsAndCountsMatchHashMapAggregation() {
+		Random random = new Random(42);
+		String[] names = {"Bok", "Półka", "Wieniec", "Front", "Plecy"};
+		MaterialType[] materials = MaterialType.values();
+		ItemType[] types = ItemType.values();
+		EdgeBanding[] bandings = {EdgeBanding.NONE, EdgeBanding.ONE_WIDTH, EdgeBanding.ALL};
+
+		for (int round = 0; round < 50; round++) {
+			List<Item> items = new ArrayList<>();
+			int size = random.nextInt(300);
+			for (int i = 0; i < size; i++) {
+				items.add(new Item(names[random.nextInt(names.length)], 300 + 50 * random.nextInt(4), 500 + 100 * random.nextInt(3), 18,
+								   1 + random.nextInt(3), materials[random.nextInt(materials.length)], types[random.nextInt(types.length)],
+								   bandings[random.nextInt(bandings.length)]));
+			}
+
+			assertThat(ItemUtils.aggregateItems(items)).containsExactlyElementsOf(aggregateWithHashMap(items));
+		}
+	}
+
+	@Test
+	void emptyAndSingleItemListsAreReturnedAsTheyAre() {
+		Item item = new Item("Bok", 720, 510, 18, 3, MaterialType.PLYTA_MEBLOWA, ItemType.CORPUS);
+
+		assertThat(ItemUtils.aggregateItems(List.of())).isEmpty();
+		assertThat(ItemUtils.aggregateItems(List.of(item))).containsExactly(item);
+	}
+
+	// The aggregation as it was before the primitive table, with the banding added to its key
+	// and a LinkedHashMap for a defined order
+	private static List<Item> aggregateWithHashMap(List<Item> items) {
+		record Key(String name, int width, int height, int thickness, MaterialType material, ItemType type, EdgeBanding banding) {
+		}
+		Map<Key, Integer> counts = new LinkedHashMap<>();
+		for (Item item : items) {
+			counts.merge(new Key(item.name(), item.width(), item.height(), item.thickness(), item.material(), item.type(), item.banding()),
+						 item.count(), Integer::sum);
+		}
+		List<Item> aggregated = new ArrayList<>();
+		counts.forEach((key, count) -> aggregated.add(new Item(key.name(), key.width(), key.height(), key.thickness(), count, key.material(),
+															   key.type(), key.banding())));
+		return aggregated;
+	}
+}
@@ -0,0 +1,101 @@
+package uk.jsikora.woodworksapi.workService;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import uk.jsikora.woodworksapi.auth.CurrentUserResolver;
+import uk.jsikora.woodworksapi.service.KitchenDraftService;
+import uk.jsikora.woodworksapi.user.UserService;
+import uk.jsikora.woodworksapi.workService.nesting.NestingOptions;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRules;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesRegistry;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class WorkControllerTests {
+
+	private static final String BODY = "{\"workType\":1,\"cabins\":[]}";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final GenerationRules rules = mock(GenerationRules.class);
+	private WorkService workService;
+	private UserService userService;
+	private WorkResponseETags eTags;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		workService = mock(WorkService.class);
+		userService = mock(UserService.class);
+		CurrentUserResolver currentUserResolver = mock(CurrentUserResolver.class);
+		when(currentUserResolver.getUserId(any())).thenReturn(1L);
+		GenerationRulesRegistry rulesRegistry = mock(GenerationRulesRegistry.class);
+		when(rulesRegistry.current()).thenAnswer(invocation -> rules);
+		when(rules.version()).thenReturn("v1");
+
+		eTags = new WorkResponseETags(objectMapper, rulesRegistry);
+		WorkController controller = new WorkController(workService, userService, currentUserResolver, mock(KitchenDraftService.class),
+													   objectMapper, eTags);
+		mockMvc = MockMvcBuilders.standaloneSetup(controller)
+								 .build();
+	}
+
+	@Test
+	void repeatedRequestFailsThePreconditionWithoutGenerating() throws Exception {
+		String eTag = eTags.tag(new WorkRequest(1, List.of()), NestingOptions.of(false, null));
+
+		mockMvc.perform(post("/cut-list/generate").contentType(MediaType.APPLICATION_JSON)
+												  .content(BODY)
+												  .header(HttpHeaders.IF_NONE_MATCH, eTag))
+			   .andExpect(status().isPreconditionFailed())
+			   .andExpect(header().string(HttpHeaders.ETAG, eTag));
+		verify(workService, never()).generateWorkResponse(any(), any());
+		verify(userService, never()).incrementGenerationCount(anyLong());
+	}
+
+	@Test
+	void changedRulesInvalidateTheTag() throws Exception {
+		String eTag = eTags.tag(new WorkRequest(1, List.of()), NestingOptions.of(false, null));
+		when(rules.version()).thenReturn("v2");
+		when(workService.generateWorkResponse(any(), any())).thenReturn(new WorkResponse());
+
+		mockMvc.perform(post("/cut-list/generate").contentType(MediaType.APPLICATION_JSON)
+												  .content(BODY)
+												  .header(HttpHeaders.IF_NONE_MATCH, eTag))
+			   .andExpect(status().isOk())
+			   .andExpect(header().string(HttpHeaders.ETAG, eTags.tag(new WorkRequest(1, List.of()), NestingOptions.of(false, null))));
+		verify(userService).incrementGenerationCount(1L);
+	}
+
+	@Test
+	void streamFailureIsReportedWithoutItsDetails() throws Exception {
+		when(workService.generateWorkResponse(any(), any(), any())).thenThrow(new IllegalStateException("relation \"base_user\" does not exist"));
+
+		MvcResult started = mockMvc.perform(post("/cut-list/generate/stream").contentType(MediaType.APPLICATION_JSON)
+																			  .content(BODY))
+								   .andExpect(request().asyncStarted())
+								   .andReturn();
+
+		mockMvc.perform(asyncDispatch(started))
+			   .andExpect(status().isOk())
+			   .andExpect(content().string("{\"status\":\"ERROR\",\"message\":\"Cut list generation failed\"}\n"));
+	}
+}
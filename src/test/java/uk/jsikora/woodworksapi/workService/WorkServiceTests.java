@@ -0,0 +1,154 @@
+package uk.jsikora.woodworksapi.workService;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.core.io.DefaultResourceLoader;
+import uk.jsikora.woodworksapi.workService.generators.ItemType;
+import uk.jsikora.woodworksapi.workService.nesting.NestingOptimizer;
+import uk.jsikora.woodworksapi.workService.nesting.NestingProperties;
+import uk.jsikora.woodworksapi.workService.nesting.NestingService;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesRegistry;
+import uk.jsikora.woodworksapi.workService.takeoff.TakeoffProperties;
+import uk.jsikora.woodworksapi.workService.takeoff.TakeoffService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Timeout(30)
+class WorkServiceTests {
+
+	// Widths of cabinets whose generator throws
+	private static final int FAILING = 1_000;
+	private static final int ALSO_FAILING = 2_000;
+
+	private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+	@AfterEach
+	void tearDown() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void parallelGroupsComeInRequestOrder() {
+		WorkService workService = workService(pool, 4);
+		WorkRequest request = request(IntStream.range(0, 200)
+											   .toArray());
+
+		for (int run = 0; run < 20; run++) {
+			assertThat(workService.generateCabinetGroups(request)).extracting(CabinetGroup::getCabinetName)
+																  .containsExactlyElementsOf(IntStream.range(0, 200)
+																									  .mapToObj(i -> "Szafka " + i)
+																									  .toList());
+		}
+	}
+
+	@Test
+	void firstFailingCabinetInRequestOrderIsReported() {
+		WorkService workService = workService(pool, 4);
+		int[] widths = IntStream.range(0, 100)
+								.toArray();
+		widths[30] = FAILING;
+		widths[70] = ALSO_FAILING;
+
+		for (int run = 0; run < 20; run++) {
+			assertThatThrownBy(() -> workService.generateCabinetGroups(request(widths))).isInstanceOf(IllegalStateException.class)
+																					   .hasMessage("Cannot generate " + FAILING);
+		}
+	}
+
+	@Test
+	void rejectingExecutorLeavesAllWorkToTheCaller() {
+		AtomicInteger submitted = new AtomicInteger();
+		Executor rejecting = task -> {
+			submitted.incrementAndGet();
+			throw new RejectedExecutionException("full");
+		};
+		WorkService workService = workService(rejecting, 4);
+
+		assertThat(workService.generateCabinetGroups(request(IntStream.range(0, 50)
+																	  .toArray()))).hasSize(50);
+		assertThat(submitted).hasValue(1);
+	}
+
+	@Test
+	void helpersAreNotSubmittedWhileAllPermitsAreTaken() {
+		// Accepts tasks but never runs them, like an executor whose threads are all busy
+		List<Runnable> parked = new ArrayList<>();
+		WorkService workService = workService(parked::add, 4);
+		WorkRequest request = request(IntStream.range(0, 50)
+											   .toArray());
+
+		// Three helpers for the first request, the fourth and last permit for the second
+		assertThat(workService.generateCabinetGroups(request)).hasSize(50);
+		assertThat(workService.generateCabinetGroups(request)).hasSize(50);
+		assertThat(workService.generateCabinetGroups(request)).hasSize(50);
+		assertThat(parked).hasSize(4);
+
+		// A helper started late finds every cabinet claimed and gives its permit back
+		parked.forEach(Runnable::run);
+		assertThat(workService.generateCabinetGroups(request)).hasSize(50);
+		assertThat(parked).hasSize(7);
+	}
+
+	private static WorkService workService(Executor executor, int poolSize) {
+		NestingProperties nestingProperties = new NestingProperties();
+		NestingService nestingService = new NestingService(nestingProperties);
+		return new WorkService(new CabinCuttingStrategyRegistry(List.of(new WidthGenerator())),
+							   nestingService,
+							   new NestingOptimizer(nestingService, nestingProperties),
+							   executor,
+							   new CabinItemsCache(0, rules(), new SimpleMeterRegistry()),
+							   new TakeoffService(new TakeoffProperties(), nestingProperties),
+							   2,
+							   poolSize);
+	}
+
+	private static GenerationRulesRegistry rules() {
+		return new GenerationRulesRegistry(new ObjectMapper(), new DefaultResourceLoader(), "classpath:generation-rules.json", event -> {
+		});
+	}
+
+	private static WorkRequest request(int... widths) {
+		List<WorkRequest.CabinRequest> cabins = new ArrayList<>();
+		for (int i = 0; i < widths.length; i++) {
+			cabins.add(new WorkRequest.CabinRequest(CabinType.DOORS, widths[i], 720, 510, 18, 1, null, null, null, null, null, null, null,
+													"Szafka " + i, null, null));
+		}
+		return new WorkRequest(0, cabins);
+	}
+
+	// One panel per cabinet, taking a little random time so helpers finish out of order
+	private static class WidthGenerator implements CabinCuttingStrategy {
+
+		@Override
+		public boolean supports(CabinType type) {
+			return true;
+		}
+
+		@Override
+		public List<Item> generateItems(WorkRequest.CabinRequest cabin) {
+			if (cabin.width() == FAILING || cabin.width() == ALSO_FAILING) {
+				throw new IllegalStateException("Cannot generate " + cabin.width());
+			}
+			long until = System.nanoTime() + ThreadLocalRandom.current()
+															  .nextLong(50_000);
+			while (System.nanoTime() < until) {
+				Thread.onSpinWait();
+			}
+			return List.of(new Item("[Korpus] Bok", cabin.width(), 720, 18, 1, MaterialType.PLYTA_MEBLOWA, ItemType.CORPUS));
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package uk.jsikora.woodworksapi.workService.generators;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import uk.jsikora.woodworksapi.workService.CabinType;
+import uk.jsikora.woodworksapi.workService.DrawerSystem;
+import uk.jsikora.woodworksapi.workService.EdgeBanding;
+import uk.jsikora.woodworksapi.workService.Item;
+import uk.jsikora.woodworksapi.workService.WorkRequest;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesRegistry;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static uk.jsikora.woodworksapi.workService.EdgeBanding.ALL;
+import static uk.jsikora.woodworksapi.workService.EdgeBanding.NONE;
+import static uk.jsikora.woodworksapi.workService.EdgeBanding.ONE_HEIGHT;
+import static uk.jsikora.woodworksapi.workService.EdgeBanding.ONE_WIDTH;
+
+class CabinGeneratorsTests {
+
+	private final GenerationRulesRegistry rules = new GenerationRulesRegistry(new ObjectMapper(), new DefaultResourceLoader(),
+																			  "classpath:generation-rules.json", event -> {
+	});
+
+	@Test
+	void doorsCabinetBandsVisibleEdgesAndPlinthBottom() {
+		List<Item> items = new DoorsCabinGenerator(rules).generateItems(
+				new WorkRequest.CabinRequest(CabinType.DOORS, 600, 720, 510, 18, 1, null, 2, null, 100, null, null, null, null, null, null));
+
+		assertThat(items).extracting(Item::name, Item::banding, Item::bandedLength)
+				.containsExactly(tuple("[Korpus] Bok (lewy)", ONE_HEIGHT, 720L),
+								 tuple("[Korpus] Bok (prawy)", ONE_HEIGHT, 720L),
+								 tuple("[Korpus] Wieniec", ONE_WIDTH, 564L),
+								 tuple("[Korpus] Wieniec górny (przód)", ONE_WIDTH, 564L),
+								 tuple("[Korpus] Wieniec górny (tył)", NONE, 0L),
+								 tuple("[Korpus] Plecy", NONE, 0L),
+								 tuple("[Korpus] Półka", ONE_WIDTH, 562L),
+								 // Two 296x716 doors banded all round
+								 tuple("[Korpus] Front (lewy)", ALL, 2024L),
+								 tuple("[Korpus] Front (prawy)", ALL, 2024L),
+								 tuple("[Cokół] Front", ONE_WIDTH, 600L));
+	}
+
+	@Test
+	void drawersCabinetBandsFrontsAndBoxBacksButNotBottoms() {
+		List<WorkRequest.DrawerConfig> drawers = List.of(new WorkRequest.DrawerConfig(360, 450), new WorkRequest.DrawerConfig(360, 450));
+		List<Item> items = new DrawersCabinGenerator(rules).generateItems(
+				new WorkRequest.CabinRequest(CabinType.DRAWERS, 600, 720, 510, 18, 1, drawers, null, null, 150, 60, true, null, null, null,
+											 DrawerSystem.BLUM_ANTARO));
+
+		assertThat(items).extracting(Item::name, Item::banding)
+				.containsExactly(tuple("[Korpus] Bok (lewy)", ONE_HEIGHT),
+								 tuple("[Korpus] Bok (prawy)", ONE_HEIGHT),
+								 tuple("[Korpus] Wieniec dolny", ONE_WIDTH),
+								 tuple("[Korpus] Wieniec górny (przód)", ONE_WIDTH),
+								 tuple("[Korpus] Wieniec górny (tył)", NONE),
+								 tuple("[Korpus] Plecy", NONE),
+								 tuple("[Szuflada] Front 1", ALL),
+								 tuple("[Szuflada] Plecy 1", ONE_WIDTH),
+								 tuple("[Szuflada] Dno 1", NONE),
+								 tuple("[Szuflada] Front 2", ALL),
+								 tuple("[Szuflada] Plecy 2", ONE_WIDTH),
+								 tuple("[Szuflada] Dno 2", NONE),
+								 tuple("[Szuflada cokołowa] Front", ALL),
+								 tuple("[Szuflada cokołowa] Plecy", ONE_WIDTH),
+								 tuple("[Szuflada cokołowa] Dno", NONE));
+		// The plinth drawer's front and back are two 414 mm pieces, each banded on one width edge
+		Item plinthDrawerBack = items.get(13);
+		assertThat(plinthDrawerBack.count()).isEqualTo(2);
+		assertThat(plinthDrawerBack.bandedLength()).isEqualTo(2 * 414L);
+	}
+
+	@Test
+	void ovenCabinetWithDrawerBandsItsDrawer() {
+		List<Item> items = new OvenCabinGenerator(rules).generateItems(
+				new WorkRequest.CabinRequest(CabinType.OVEN, 600, 720, 510, 18, 1, null, null, true, null, null, null, null, null, null, null));
+
+		assertThat(items).extracting(Item::name, Item::banding)
+				.containsExactly(tuple("[Korpus] Bok (lewy)", ONE_HEIGHT),
+								 tuple("[Korpus] Bok (prawy)", ONE_HEIGHT),
+								 tuple("[Korpus] Wieniec", ONE_WIDTH),
+								 tuple("[Korpus] Wieniec górny", ONE_WIDTH),
+								 tuple("[Korpus] Półka pod piekarnik", ONE_WIDTH),
+								 tuple("[Szuflada] Front", ALL),
+								 tuple("[Szuflada] Plecy", ONE_WIDTH),
+								 tuple("[Szuflada] Dno", NONE),
+								 tuple("[Korpus] Plecy", NONE));
+	}
+
+	@Test
+	void ovenCabinetWithoutDrawerBandsItsFiller() {
+		List<Item> items = new OvenCabinGenerator(rules).generateItems(
+				new WorkRequest.CabinRequest(CabinType.OVEN, 600, 720, 510, 18, 1, null, null, false, null, null, null, null, null, null, null));
+
+		assertThat(items).extracting(Item::name, Item::banding, Item::bandedLength)
+				.containsExactly(tuple("[Korpus] Bok (lewy)", ONE_HEIGHT, 720L),
+								 tuple("[Korpus] Bok (prawy)", ONE_HEIGHT, 720L),
+								 tuple("[Korpus] Wieniec", ONE_WIDTH, 564L),
+								 tuple("[Korpus] Wieniec górny", ONE_WIDTH, 564L),
+								 tuple("[Korpus] Półka pod piekarnik", ONE_WIDTH, 564L),
+								 // 596x100 filler banded all round
+								 tuple("[Korpus] Blenda dolna", ALL, 1392L),
+								 tuple("[Korpus] Plecy", NONE, 0L));
+	}
+
+	@Test
+	void bandedLengthCountsEveryBandedEdgeOfEveryPiece() {
+		assertThat(new EdgeBanding(2, 1).length(500, 300)).isEqualTo(1300);
+		assertThat(new Item("Bok", 500, 300, 18, 3, null, ItemType.CORPUS, new EdgeBanding(1, 2)).bandedLength()).isEqualTo(3 * 1100L);
+		// Items without banding default to none
+		assertThat(new Item("Plecy", 500, 300, 3, 1, null, ItemType.HDF, null).bandedLength()).isZero();
+		assertThatThrownBy(() -> new EdgeBanding(3, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
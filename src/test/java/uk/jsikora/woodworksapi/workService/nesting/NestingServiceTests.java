@@ -0,0 +1,179 @@
+package uk.jsikora.woodworksapi.workService.nesting;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.jsikora.woodworksapi.workService.CabinType;
+import uk.jsikora.woodworksapi.workService.CabinetGroup;
+import uk.jsikora.woodworksapi.workService.Item;
+import uk.jsikora.woodworksapi.workService.MaterialType;
+import uk.jsikora.woodworksapi.workService.generators.ItemType;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NestingServiceTests {
+
+	private NestingProperties properties;
+	private NestingService nestingService;
+
+	@BeforeEach
+	void setUp() {
+		properties = new NestingProperties();
+		ReflectionTestUtils.setField(properties, "boardLength", 2800);
+		ReflectionTestUtils.setField(properties, "boardWidth", 2070);
+		ReflectionTestUtils.setField(properties, "kerf", 4);
+		ReflectionTestUtils.setField(properties, "edgeTrim", 10);
+		ReflectionTestUtils.setField(properties, "grainLockedTypes", List.of(ItemType.FRONT));
+		ReflectionTestUtils.setField(properties, "maxTimeBudgetMs", 5000L);
+		nestingService = new NestingService(properties);
+	}
+
+	@Test
+	void panelsDoNotOverlapAndStayInsideTrimmedBoard() {
+		List<NestingResult> results = nestingService.nest(kitchen(40));
+
+		assertThat(results).extracting(NestingResult::material)
+						   .contains(MaterialType.PLYTA_MEBLOWA, MaterialType.HDF);
+		for (NestingResult result : results) {
+			assertThat(result.unplaced()).isEmpty();
+			for (BoardLayout board : result.boards()) {
+				List<PlacedPanel> panels = board.panels();
+				for (int i = 0; i < panels.size(); i++) {
+					PlacedPanel a = panels.get(i);
+					assertThat(a.x()).isGreaterThanOrEqualTo(10);
+					assertThat(a.y()).isGreaterThanOrEqualTo(10);
+					assertThat(a.x() + a.length()).isLessThanOrEqualTo(2790);
+					assertThat(a.y() + a.width()).isLessThanOrEqualTo(2060);
+					for (int j = i + 1; j < panels.size(); j++) {
+						PlacedPanel b = panels.get(j);
+						boolean separated = a.x() + a.length() + 4 <= b.x() || b.x() + b.length() + 4 <= a.x()
+								|| a.y() + a.width() + 4 <= b.y() || b.y() + b.width() + 4 <= a.y();
+						assertThat(separated).as("%s overlaps %s", a, b)
+											 .isTrue();
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void grainLockedPanelsAreNeverRotated() {
+		List<NestingResult> results = nestingService.nest(kitchen(10));
+
+		results.stream()
+			   .flatMap(r -> r.boards()
+							  .stream())
+			   .flatMap(b -> b.panels()
+							  .stream())
+			   .filter(p -> p.type() == ItemType.FRONT)
+			   .forEach(p -> assertThat(p.rotated()).isFalse());
+	}
+
+	@Test
+	void oversizedPanelsAreReportedAsUnplaced() {
+		Item worktop = new Item("Blat", 600, 3600, 38, 1, MaterialType.BLAT, ItemType.CORPUS);
+		List<NestingResult> results = nestingService.nest(List.of(new CabinetGroup("Blat", CabinType.DOORS, 1, List.of(worktop))));
+
+		assertThat(results).singleElement()
+						   .satisfies(r -> {
+							   assertThat(r.boards()).isEmpty();
+							   assertThat(r.unplaced()).containsExactly(worktop);
+						   });
+	}
+
+	@Test
+	@Timeout(30)
+	void optimisedSearchIsNeverWorseThanGreedyAndReturnsWithinBudget() {
+		NestingOptimizer optimizer = new NestingOptimizer(nestingService, properties);
+		List<CabinetGroup> kitchen = kitchen(40);
+
+		List<NestingResult> greedy = nestingService.nest(kitchen);
+		List<NestingResult> optimised = optimizer.optimise(kitchen, Duration.ofMillis(300));
+		optimizer.shutdown();
+
+		assertThat(optimised).hasSameSizeAs(greedy);
+		for (int i = 0; i < greedy.size(); i++) {
+			assertThat(optimised.get(i)
+								.boardCount()).isLessThanOrEqualTo(greedy.get(i)
+																		 .boardCount());
+		}
+	}
+
+	@Test
+	void incrementalNestingKeepsUnchangedPanelsInPlace() {
+		ReflectionTestUtils.setField(properties, "incrementalYieldDrop", 100.0);
+		ReflectionTestUtils.setField(properties, "layoutCacheSize", 10L);
+		IncrementalNestingService incremental = new IncrementalNestingService(nestingService, properties);
+		UUID draft = UUID.randomUUID();
+		List<CabinetGroup> kitchen = new ArrayList<>(kitchen(20));
+
+		List<NestingResult> before = incremental.nest(draft, kitchen);
+		kitchen.set(0, cabinet("Szafka 0", 450));
+		kitchen.remove(5);
+		List<NestingResult> after = incremental.nest(draft, kitchen);
+
+		List<PlacedPanel> firstBoardBefore = before.get(0)
+												   .boards()
+												   .get(0)
+												   .panels();
+		List<PlacedPanel> firstBoardAfter = after.get(0)
+												 .boards()
+												 .get(0)
+												 .panels();
+		long moved = firstBoardBefore.stream()
+									 .filter(p -> !firstBoardAfter.contains(p))
+									 .count();
+		// Both sides of the resized cabinet keep their size, the other five of its panels change
+		assertThat(moved).isLessThanOrEqualTo(5 + 7);
+		assertThat(after.get(0)
+						.boards()
+						.stream()
+						.flatMap(b -> b.panels()
+									   .stream())
+						.filter(p -> p.type() == ItemType.FRONT)
+						.anyMatch(p -> Math.max(p.length(), p.width()) == 716 && Math.min(p.length(), p.width()) == 446)).isTrue();
+		assertThat(after.get(0)
+						.boards()
+						.stream()
+						.mapToInt(b -> b.panels()
+										.size())
+						.sum()).isEqualTo(19 * 7);
+	}
+
+	@Test
+	@Timeout(30)
+	void nestsLargeKitchenDeterministically() {
+		List<CabinetGroup> kitchen = kitchen(40);
+
+		List<NestingResult> first = nestingService.nest(kitchen);
+		List<NestingResult> second = nestingService.nest(kitchen);
+
+		assertThat(second).isEqualTo(first);
+		assertThat(first).allSatisfy(r -> assertThat(r.unplaced()).isEmpty());
+	}
+
+	private static List<CabinetGroup> kitchen(int cabinets) {
+		List<CabinetGroup> groups = new ArrayList<>();
+		for (int i = 0; i < cabinets; i++) {
+			groups.add(cabinet("Szafka " + i, 300 + (i % 6) * 100));
+		}
+		return groups;
+	}
+
+	private static CabinetGroup cabinet(String name, int width) {
+		int inner = width - 36;
+		List<Item> items = List.of(new Item("[Korpus] Bok", 510, 720, 18, 2, MaterialType.PLYTA_MEBLOWA, ItemType.CORPUS),
+								   new Item("[Korpus] Wieniec", inner, 510, 18, 1, MaterialType.PLYTA_MEBLOWA, ItemType.CORPUS),
+								   new Item("[Korpus] Wieniec górny", inner, 100, 18, 2, MaterialType.PLYTA_MEBLOWA, ItemType.CORPUS),
+								   new Item("[Korpus] Półka", inner - 2, 490, 18, 1, MaterialType.PLYTA_MEBLOWA, ItemType.SHELF),
+								   new Item("[Korpus] Front", width - 4, 716, 18, 1, MaterialType.PLYTA_MEBLOWA, ItemType.FRONT),
+								   new Item("[Korpus] Plecy", width - 2, 718, 3, 1, MaterialType.HDF, ItemType.HDF));
+		return new CabinetGroup(name, CabinType.DOORS, 1, items);
+	}
+}
@@ -0,0 +1,108 @@
+package uk.jsikora.woodworksapi.workService.rules;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import uk.jsikora.woodworksapi.workService.DrawerSystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GenerationRulesRegistryTests {
+
+	@TempDir
+	private Path directory;
+
+	private Path file;
+	private String defaults;
+	private final List<Object> events = new ArrayList<>();
+	private long modified = 1_000_000_000_000L;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		try (InputStream in = getClass().getResourceAsStream("/generation-rules.json")) {
+			defaults = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		file = directory.resolve("generation-rules.json");
+		write(defaults);
+	}
+
+	@Test
+	void changedFileIsSwappedInAndAnnounced() throws IOException {
+		GenerationRulesRegistry registry = registry();
+		GenerationRules before = registry.current();
+
+		write(defaults.replace("\"GTV_AXIS_PRO\": {}", "\"GTV_AXIS_PRO\": {\"slideAllowance\": 30}"));
+		registry.reloadIfModified();
+
+		assertThat(registry.current()
+						   .slideAllowance(DrawerSystem.GTV_AXIS_PRO)).isEqualTo(30);
+		assertThat(registry.current()
+						   .version()).isNotEqualTo(before.version());
+		assertThat(events).singleElement()
+						  .isEqualTo(new GenerationRulesChangedEvent(registry.current()));
+	}
+
+	@Test
+	void invalidFileKeepsThePreviousRules() throws IOException {
+		GenerationRulesRegistry registry = registry();
+		GenerationRules before = registry.current();
+
+		write(defaults.replace("\"frontClearance\": 4", "\"frontClearance\": -4"));
+		registry.reloadIfModified();
+		write(defaults.replace("\"drawerGap\"", "\"drawerGapp\""));
+		registry.reloadIfModified();
+		write("{ not json");
+		registry.reloadIfModified();
+
+		assertThat(registry.current()).isSameAs(before);
+		assertThat(events).isEmpty();
+	}
+
+	@Test
+	void reformattedFileKeepsItsVersion() throws IOException {
+		GenerationRulesRegistry registry = registry();
+		GenerationRules before = registry.current();
+
+		write(defaults.replaceAll("\\s+", ""));
+		registry.reloadIfModified();
+
+		assertThat(registry.current()).isSameAs(before);
+		assertThat(events).isEmpty();
+		assertThat(registry().current()
+							 .version()).isEqualTo(before.version());
+	}
+
+	@Test
+	void invalidFileFailsTheStart() throws IOException {
+		write(defaults.replace("\"topBeamHeight\": 100,", ""));
+
+		assertThatThrownBy(this::registry).isInstanceOf(IllegalArgumentException.class)
+										  .hasMessageContaining("topBeamHeight");
+		assertThatThrownBy(() -> new GenerationRulesRegistry(new ObjectMapper(), new DefaultResourceLoader(), "file:" + directory.resolve("missing.json"), events::add))
+				.isInstanceOf(UncheckedIOException.class);
+	}
+
+	private GenerationRulesRegistry registry() {
+		return new GenerationRulesRegistry(new ObjectMapper(), new DefaultResourceLoader(), "file:" + file, events::add);
+	}
+
+	// Each write gets a later modification time, regardless of the file system's resolution
+	private void write(String content) throws IOException {
+		Files.writeString(file, content);
+		modified += 1000;
+		Files.setLastModifiedTime(file, FileTime.fromMillis(modified));
+	}
+}
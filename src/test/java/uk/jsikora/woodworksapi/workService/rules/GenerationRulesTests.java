@@ -0,0 +1,60 @@
+package uk.jsikora.woodworksapi.workService.rules;
+
+import org.junit.jupiter.api.Test;
+import uk.jsikora.woodworksapi.workService.DrawerSystem;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GenerationRulesTests {
+
+	private static final GenerationRulesDefinition.Oven OVEN = new GenerationRulesDefinition.Oven(20, 100, 10);
+	private static final GenerationRulesDefinition.DrawerSystemProfile DEFAULTS =
+			new GenerationRulesDefinition.DrawerSystemProfile(26, 32, 16, 16, 40, 80);
+
+	@Test
+	void drawerSystemsInheritWhatTheyDoNotOverride() {
+		GenerationRules rules = GenerationRules.compile(definition(Map.of(DrawerSystem.GTV_AXIS_PRO,
+																		  new GenerationRulesDefinition.DrawerSystemProfile(30, null, 18, null, 60, null))), "v1");
+
+		assertThat(rules.slideAllowance(DrawerSystem.GTV_AXIS_PRO)).isEqualTo(30);
+		assertThat(rules.backWidthReduction(DrawerSystem.GTV_AXIS_PRO)).isEqualTo(32);
+		assertThat(rules.backThickness(DrawerSystem.GTV_AXIS_PRO)).isEqualTo(18);
+		assertThat(rules.bottomThickness(DrawerSystem.GTV_AXIS_PRO)).isEqualTo(16);
+		// Front 200: 200 - 60 for the override, 200 - 40 for the others; never below the minimum
+		assertThat(rules.boxHeight(DrawerSystem.GTV_AXIS_PRO, 200)).isEqualTo(140);
+		assertThat(rules.boxHeight(DrawerSystem.BLUM_ANTARO, 200)).isEqualTo(160);
+		assertThat(rules.boxHeight(DrawerSystem.BLUM_ANTARO, 100)).isEqualTo(80);
+
+		// Systems without a profile, and no system at all, use the default profile
+		assertThat(rules.slideAllowance(DrawerSystem.BLUM_ANTARO)).isEqualTo(26);
+		assertThat(rules.slideAllowance(null)).isEqualTo(26);
+		assertThat(rules.version()).isEqualTo("v1");
+	}
+
+	@Test
+	void missingOrOutOfRangeValuesAreRejected() {
+		assertThatThrownBy(() -> GenerationRules.compile(new GenerationRulesDefinition(4, null, 3, OVEN, DEFAULTS, null), "v"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("topBeamHeight");
+		assertThatThrownBy(() -> GenerationRules.compile(new GenerationRulesDefinition(4, 100, 3, null, DEFAULTS, null), "v"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("oven");
+		assertThatThrownBy(() -> GenerationRules.compile(new GenerationRulesDefinition(4, 100, 3, OVEN, null, null), "v"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("defaultDrawerSystem");
+		assertThatThrownBy(() -> GenerationRules.compile(new GenerationRulesDefinition(-1, 100, 3, OVEN, DEFAULTS, null), "v"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("frontClearance must be at least 0");
+		assertThatThrownBy(() -> GenerationRules.compile(definition(Map.of(DrawerSystem.GTV_MODERNBOX,
+																		   new GenerationRulesDefinition.DrawerSystemProfile(null, null, 0, null, null, null))), "v"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("GTV_MODERNBOX.backThickness");
+	}
+
+	private static GenerationRulesDefinition definition(Map<DrawerSystem, GenerationRulesDefinition.DrawerSystemProfile> drawerSystems) {
+		return new GenerationRulesDefinition(4, 100, 3, OVEN, DEFAULTS, drawerSystems);
+	}
+}
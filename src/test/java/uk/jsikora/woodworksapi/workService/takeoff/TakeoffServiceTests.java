@@ -0,0 +1,105 @@
+package uk.jsikora.woodworksapi.workService.takeoff;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+import uk.jsikora.woodworksapi.workService.CabinType;
+import uk.jsikora.woodworksapi.workService.CabinetGroup;
+import uk.jsikora.woodworksapi.workService.DrawerSystem;
+import uk.jsikora.woodworksapi.workService.EdgeBanding;
+import uk.jsikora.woodworksapi.workService.Item;
+import uk.jsikora.woodworksapi.workService.MaterialType;
+import uk.jsikora.woodworksapi.workService.WorkRequest;
+import uk.jsikora.woodworksapi.workService.generators.DoorsCabinGenerator;
+import uk.jsikora.woodworksapi.workService.generators.DrawersCabinGenerator;
+import uk.jsikora.woodworksapi.workService.generators.ItemType;
+import uk.jsikora.woodworksapi.workService.nesting.NestingProperties;
+import uk.jsikora.woodworksapi.workService.rules.GenerationRulesRegistry;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TakeoffServiceTests {
+
+	private TakeoffService takeoffService;
+
+	@BeforeEach
+	void setUp() {
+		NestingProperties nestingProperties = new NestingProperties();
+		ReflectionTestUtils.setField(nestingProperties, "boardLength", 2800);
+		ReflectionTestUtils.setField(nestingProperties, "boardWidth", 2070);
+
+		TakeoffProperties properties = new TakeoffProperties();
+		ReflectionTestUtils.setField(properties, "currency", "PLN");
+		ReflectionTestUtils.setField(properties, "plytaMeblowaPerSquareMetre", 40.0);
+		ReflectionTestUtils.setField(properties, "hdfPerSheet", 50.0);
+		ReflectionTestUtils.setField(properties, "edgeBandingPerMetre", 2.0);
+		takeoffService = new TakeoffService(properties, nestingProperties);
+	}
+
+	@Test
+	void multipliesOutCountsAndSplitsByColour() {
+		WorkRequest request = new WorkRequest(0, List.of(cabin("Biały", "Dąb"), cabin("Biały", "Szary")));
+		List<CabinetGroup> groups = List.of(group(2), group(1));
+
+		KitchenTakeoff takeoff = takeoffService.takeoff(request, groups);
+
+		// Per cabinet: two 500x1000 sides and one 500x700 front
+		assertThat(takeoff.materials()).extracting(KitchenTakeoff.MaterialTotal::colour, KitchenTakeoff.MaterialTotal::areaSquareMetres)
+				.containsExactly(tuple("Biały", 3.0),
+								 tuple("Dąb", 0.7),
+								 tuple(null, 3.0),
+								 tuple("Szary", 0.35));
+		// Sides banded on one height edge, fronts all round
+		assertThat(takeoff.edgeBanding()).extracting(KitchenTakeoff.EdgeBandingTotal::type, KitchenTakeoff.EdgeBandingTotal::metres)
+				.containsExactly(tuple(ItemType.CORPUS, 6.0),
+								 tuple(ItemType.FRONT, 7.2));
+		// 3 m² of HDF fits one 2800x2070 sheet
+		assertThat(takeoff.hdfSheets()).isEqualTo(1);
+		assertThat(takeoff.totalCost()).isEqualTo(4.05 * 40 + 50 + 13.2 * 2);
+	}
+
+	@Test
+	void sumsGeneratedBandingPerItemType() {
+		GenerationRulesRegistry rules = new GenerationRulesRegistry(new ObjectMapper(), new DefaultResourceLoader(), "classpath:generation-rules.json",
+																	event -> {
+																	});
+		WorkRequest.CabinRequest doors = new WorkRequest.CabinRequest(CabinType.DOORS, 600, 720, 510, 18, 2, null, 2, null, 100, null, null, null,
+																	  null, null, null);
+		WorkRequest.CabinRequest drawers = new WorkRequest.CabinRequest(CabinType.DRAWERS, 600, 720, 510, 18, 1,
+																		List.of(new WorkRequest.DrawerConfig(360, 450), new WorkRequest.DrawerConfig(360, 450)),
+																		null, null, 150, 60, true, null, null, null, DrawerSystem.BLUM_ANTARO);
+		List<CabinetGroup> groups = List.of(
+				new CabinetGroup("Szafka", CabinType.DOORS, 2, new DoorsCabinGenerator(rules).generateItems(doors)),
+				new CabinetGroup("Szuflady", CabinType.DRAWERS, 1, new DrawersCabinGenerator(rules).generateItems(drawers)));
+
+		KitchenTakeoff takeoff = takeoffService.takeoff(new WorkRequest(0, List.of(doors, drawers)), groups);
+
+		// Corpus: two sides on their height, bottom and front beam on their width, per cabinet.
+		// Fronts: two 296x716 doors twice, two 596x357 drawer fronts. Drawer boxes: two 506 mm
+		// backs and the plinth drawer's two 414 mm pieces. Plinth: a 600 mm bottom edge twice
+		// and a 596x146 plinth drawer front. Shelf: a 562 mm edge twice. Bottoms are not banded.
+		assertThat(takeoff.edgeBanding()).extracting(KitchenTakeoff.EdgeBandingTotal::type, KitchenTakeoff.EdgeBandingTotal::metres)
+				.containsExactly(tuple(ItemType.CORPUS, 7.704),
+								 tuple(ItemType.FRONT, 11.908),
+								 tuple(ItemType.DRAWER_BOX, 1.84),
+								 tuple(ItemType.PLINTH, 2.684),
+								 tuple(ItemType.SHELF, 1.124));
+	}
+
+	private static WorkRequest.CabinRequest cabin(String corpusColor, String frontColor) {
+		return new WorkRequest.CabinRequest(CabinType.DOORS, 500, 1000, 500, 18, 1, null, 1, null, null, null, null, null, null,
+											new WorkRequest.ColorConfig(corpusColor, frontColor, null, null), null);
+	}
+
+	private static CabinetGroup group(int cabinetCount) {
+		return new CabinetGroup("Szafka", CabinType.DOORS, cabinetCount, List.of(
+				new Item("Bok", 500, 1000, 18, 2, MaterialType.PLYTA_MEBLOWA, ItemType.CORPUS, EdgeBanding.ONE_HEIGHT),
+				new Item("Front", 500, 700, 18, 1, MaterialType.PLYTA_MEBLOWA, ItemType.FRONT, EdgeBanding.ALL),
+				new Item("Plecy", 1000, 1000, 3, 1, MaterialType.HDF, ItemType.HDF, EdgeBanding.NONE)));
+	}
+}